@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
  * below. See comments on those methods for explanations.</p>
  * <ul>
  *     <li>{@link #excluding(Iterable)}</li>
+ *     <li>{@link #getSubcaseCount()}</li>
  * </ul>
  *
  * @param <T> the type of values created by this case.
@@ -48,6 +49,18 @@ public interface Case<T>
 	 */
 	Set<Subcase<T>> getSubcases();
 
+	/**
+	 * Returns the number of subcases that {@link #getSubcases()} returns. The fuzzy engine plans a test's iterations
+	 * from the subcase counts of its generators alone, and only expands the subcases of the generators that the test
+	 * actually reads.
+	 *
+	 * <p><strong>Note to implementors:</strong> the default implementation expands the subcases to count them. Cases
+	 * whose subcases are expensive to create, such as permutations of the subcases of other cases, should override this
+	 * method to compute the count directly. The count must always equal the size of the set returned by
+	 * {@link #getSubcases()}, in which a subcase that several nested cases share appears only once.</p>
+	 */
+	default int getSubcaseCount() { return getSubcases().size(); }
+
 	/**
 	 * Returns a new case that combines the subcases of this case and the provided {@code other} case. This method can
 	 * be used to combine different cases for a value into a single {@linkplain Generator generator}.
@@ -60,6 +73,16 @@ public interface Case<T>
 	 */
 	default Case<T> orNull() { return Any.nullableOf(this); }
 
+	/**
+	 * Returns a new case with the same subcases as this case, whose values the fuzzy engine generates once per test and
+	 * reuses across iterations. Use this for cases that build large, immutable fixtures. Call it on the case the
+	 * generator is declared with: cases derived from a cacheable case, for example by mapping it or by building
+	 * collections of its values, are not cacheable themselves.
+	 *
+	 * @see Subcases#cacheable(Subcase)
+	 */
+	default Case<T> cacheable() { return Cases.cacheable(this); }
+
 	/**
 	 * Constrains the
 	 */
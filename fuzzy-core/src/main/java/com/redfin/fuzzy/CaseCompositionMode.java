@@ -1,19 +1,15 @@
 package com.redfin.fuzzy;
 
-import com.redfin.fuzzy.pairwise.Pairwise;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
-import java.util.Stack;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Describes the different algorithms the fuzzy library can use to permute subcases when running tests or using one of
- * the {@linkplain Cases#compose case composition functions}.
+ * the {@linkplain Cases#compose case composition functions}. Other algorithms can be plugged in by implementing
+ * {@link CompositionPlanner}.
  */
-public enum CaseCompositionMode {
+public enum CaseCompositionMode implements CompositionPlanner {
 	/**
 	 * The composition will generate enough subcases so that each base case's suppliers are covered at least once, or
 	 * the a number equivalent to the maximum number of suppliers of any base case. Use this mode when you are concerned
@@ -52,31 +48,35 @@ public enum CaseCompositionMode {
 	 * tests.
 	 * </p>
 	 */
-	EACH_SUBCASE_AT_LEAST_ONCE(baseCases -> {
-		List<Subcase[]> permutations = new ArrayList<>();
-		int[] indices = new int[baseCases.length];
-		int completed = 0;
-
-		Subcase[][] suppliers = new Subcase[baseCases.length][];
-		for(int i = 0; i < baseCases.length; i++) {
-			@SuppressWarnings("unchecked")
-			Set<Function> subcases = baseCases[i].getSubcases();
-
-			Subcase[] subcasesArray = subcases.toArray(new Subcase[] {});
-			suppliers[i] = subcasesArray;
-		}
+	EACH_SUBCASE_AT_LEAST_ONCE {
+		@Override
+		public Iterator<int[]> plan(int[] subcaseCounts) {
+			int maxSubcases = Arrays.stream(subcaseCounts).max().orElse(0);
 
-		while(completed < baseCases.length) {
-			Subcase[] subcase = new Subcase[baseCases.length];
-			for(int i = 0; i < baseCases.length; i++) {
-				subcase[i] = suppliers[i][indices[i] % suppliers[i].length];
-				if(++indices[i] == suppliers[i].length) { completed++; }
-			}
-			permutations.add(subcase);
-		}
+			return new Iterator<int[]>() {
+				private int iteration;
+
+				@Override
+				public boolean hasNext() {
+					return iteration < maxSubcases;
+				}
+
+				@Override
+				public int[] next() {
+					if(!hasNext())
+						throw new NoSuchElementException();
 
-		return permutations.toArray(new Subcase[][] {});
-	}),
+					int[] row = new int[subcaseCounts.length];
+					for(int slot = 0; slot < row.length; slot++) {
+						row[slot] = iteration % subcaseCounts[slot];
+					}
+
+					iteration++;
+					return row;
+				}
+			};
+		}
+	},
 
 	/**
 	 * The composition will generate enough subcases so that each possible pairing of any two base cases will be
@@ -120,33 +120,82 @@ public enum CaseCompositionMode {
 	 * tests.
 	 * </p>
 	 */
-	PAIRWISE_PERMUTATIONS_OF_SUBCASES(baseCases -> {
-		List<Set> parameters = Arrays
-			.stream(baseCases)
-			.map((Function<Case, Set>) Case::getSubcases)
-			.collect(Collectors.toList());
-
-		Pairwise<Set> p = new Pairwise<>(parameters);
-		Stack<List<Object>> permutations = p.generate();
-
-		Subcase[][] subcases = new Subcase[permutations.size()][];
-		int i = 0;
-		for(List<Object> subcase : permutations) {
-			Subcase[] suppliers = new Subcase[baseCases.length];
-			for(int j = 0; j < baseCases.length; j++) {
-				suppliers[j] = (Subcase)subcase.get(j);
-			}
-			subcases[i++] = suppliers;
+	PAIRWISE_PERMUTATIONS_OF_SUBCASES {
+		@Override
+		public Iterator<int[]> plan(int[] subcaseCounts) {
+			return PlanCache.SHARED.pairwise(subcaseCounts, Boolean.getBoolean(REMOVE_REDUNDANT_ITERATIONS_PROPERTY));
 		}
 
-		return subcases;
-	}),
+		@Override
+		public CompositionPlanner removingRedundantIterations(boolean removeRedundantIterations) {
+			return removeRedundantIterations ? PairwisePlanner.NON_REDUNDANT : PairwisePlanner.ALL;
+		}
+	},
+
+	/**
+	 * Like {@link #PAIRWISE_PERMUTATIONS_OF_SUBCASES}, the composition will include each possible pairing of the
+	 * subcases of any two base cases at least once, but it is computed with the in-parameter-order algorithm defined by
+	 * the {@link com.redfin.fuzzy.pairwise.InParameterOrder InParameterOrder} class. That algorithm usually needs far
+	 * fewer composed subcases to cover every pair, so use this mode when each permutation is expensive to test.
+	 *
+	 * <p>
+	 * For example, ten base cases with five subcases each are covered by about 50 composed subcases, where
+	 * {@code PAIRWISE_PERMUTATIONS_OF_SUBCASES} needs about 150; when the two largest base cases have 20 and 17
+	 * subcases, the 340 permutations of those two alone are often enough to cover every other pair as well. The plan
+	 * never contains redundant permutations, so the {@value #REMOVE_REDUNDANT_ITERATIONS_PROPERTY} system property
+	 * does not apply to it.
+	 * </p>
+	 * <p>
+	 * Note also that the specific distribution of subcases is not guaranteed by this algorithm and may change between
+	 * tests.
+	 * </p>
+	 */
+	PAIRWISE_IN_PARAMETER_ORDER {
+		@Override
+		public Iterator<int[]> plan(int[] subcaseCounts) {
+			return PlanCache.SHARED.inParameterOrder(subcaseCounts);
+		}
+	},
 
 	;
 
-	/* package */ final Algorithm algorithm;
+	/**
+	 * The system property that, when set to {@code true}, removes iterations that would not cover any pair of subcases
+	 * not already covered by earlier iterations from pairwise plans. Iterations that exactly duplicate an earlier one are
+	 * always removed.
+	 */
+	/*package*/ static final String REMOVE_REDUNDANT_ITERATIONS_PROPERTY = "fuzzy.removeRedundantIterations";
+
+	/**
+	 * Returns a planner that plans like this mode, and that removes iterations that would not cover any pair of
+	 * subcases not already covered by earlier iterations exactly when {@code removeRedundantIterations} is
+	 * {@code true}, whatever the {@value #REMOVE_REDUNDANT_ITERATIONS_PROPERTY} system property is set to. Modes whose
+	 * plans never contain redundant iterations return themselves.
+	 */
+	public CompositionPlanner removingRedundantIterations(boolean removeRedundantIterations) {
+		return this;
+	}
+
+	// The pairwise planners whose removal of redundant iterations does not depend on the system property.
+	private static final class PairwisePlanner implements CompositionPlanner {
+		static final PairwisePlanner ALL = new PairwisePlanner(false);
+		static final PairwisePlanner NON_REDUNDANT = new PairwisePlanner(true);
 
-	private CaseCompositionMode(Algorithm algorithm) { this.algorithm = algorithm; }
+		private final boolean removeRedundantIterations;
+
+		private PairwisePlanner(boolean removeRedundantIterations) {
+			this.removeRedundantIterations = removeRedundantIterations;
+		}
 
-	/* package */ interface Algorithm { Subcase[][] apply(Case[] baseCases); }
+		@Override
+		public Iterator<int[]> plan(int[] subcaseCounts) {
+			return PlanCache.SHARED.pairwise(subcaseCounts, removeRedundantIterations);
+		}
+
+		@Override
+		public String toString() {
+			String name = PAIRWISE_PERMUTATIONS_OF_SUBCASES.toString();
+			return removeRedundantIterations ? name + " without redundant iterations" : name;
+		}
+	}
 }
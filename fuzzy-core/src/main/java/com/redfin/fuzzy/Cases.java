@@ -1,7 +1,9 @@
 package com.redfin.fuzzy;
 
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Random;
 import java.util.Set;
 import java.util.function.BiFunction;
@@ -50,9 +52,9 @@ public class Cases {
 	 *     3000
 	 * </code></pre>
 	 *
-	 * @param caseCompositionMode - the algorithm to use for deciding both how many composed subcases will be created,
-	 *        as well as which specific values of the base cases to use for each composed subcase. See the descriptions
-	 *        for the individual algorithms for more information. In general, you should use
+	 * @param planner - the algorithm to use for deciding both how many composed subcases will be created, as well as
+	 *        which specific values of the base cases to use for each composed subcase. See the descriptions for the
+	 *        individual {@linkplain CompositionPlanner planners} for more information. In general, you should use
 	 *        {@link CaseCompositionMode#PAIRWISE_PERMUTATIONS_OF_SUBCASES} unless you experience performance issues.
 	 *        Use {@link CaseCompositionMode#EACH_SUBCASE_AT_LEAST_ONCE} to limit the total number of composed subcases.
 	 * @param baseCases - the cases that the overall case is comprised of.
@@ -67,17 +69,31 @@ public class Cases {
 	 * @return a case that can be used to generate values based on the composition function.
 	 */
 	public static <OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case[] baseCases,
 		BiFunction<Random, Object[], OUTPUT> composition
 	) {
-		FuzzyPreconditions.checkNotNull("caseCompositionMode is required.", caseCompositionMode);
+		FuzzyPreconditions.checkNotNull("planner is required.", planner);
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(baseCases);
 		FuzzyPreconditions.checkNotNull("composition function is required.", composition);
 
-		Subcase[][] composedSubcases = caseCompositionMode.algorithm.apply(baseCases);
-		Set<Subcase<OUTPUT>> subcases = new HashSet<>();
-		for(final Subcase[] subcase : composedSubcases) {
+		Subcase[][] baseSubcases = new Subcase[baseCases.length][];
+		for(int i = 0; i < baseCases.length; i++) {
+			@SuppressWarnings("unchecked")
+			Set<Subcase> subcases = baseCases[i].getSubcases();
+			baseSubcases[i] = subcases.toArray(new Subcase[0]);
+		}
+
+		Set<Subcase<OUTPUT>> subcases = new LinkedHashSet<>();
+		Iterator<int[]> rows = baseCases.length == 0
+			? Collections.emptyIterator()
+			: planner.plan(Arrays.stream(baseSubcases).mapToInt(b -> b.length).toArray());
+		while(rows.hasNext()) {
+			int[] row = rows.next();
+			final Subcase[] subcase = new Subcase[row.length];
+			for(int j = 0; j < row.length; j++)
+				subcase[j] = baseSubcases[j][row[j]];
+
 			subcases.add(r -> {
 				Object[] values = new Object[subcase.length];
 				for (int j = 0; j < subcase.length; j++) {
@@ -124,17 +140,17 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		TwoCaseCompositionFunction<INPUT1, INPUT2, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1])
 		);
@@ -148,18 +164,18 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
 		ThreeCaseCompositionFunction<INPUT1, INPUT2, INPUT3, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2, baseCase3 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1], (INPUT3)values[2])
 		);
@@ -173,11 +189,11 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -185,7 +201,7 @@ public class Cases {
 		FourCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2, baseCase3, baseCase4 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1], (INPUT3)values[2], (INPUT4)values[3])
 		);
@@ -199,11 +215,11 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -212,7 +228,7 @@ public class Cases {
 		FiveCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2, baseCase3, baseCase4, baseCase5 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1], (INPUT3)values[2], (INPUT4)values[3], (INPUT5)values[4])
 		);
@@ -226,11 +242,11 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -240,7 +256,7 @@ public class Cases {
 		SixCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1], (INPUT3)values[2], (INPUT4)values[3], (INPUT5)values[4], (INPUT6)values[5])
 		);
@@ -254,11 +270,11 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -269,7 +285,7 @@ public class Cases {
 		SevenCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1], (INPUT3)values[2], (INPUT4)values[3], (INPUT5)values[4], (INPUT6)values[5], (INPUT7)values[6])
 		);
@@ -283,11 +299,11 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -299,7 +315,7 @@ public class Cases {
 		EightCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7, baseCase8 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1], (INPUT3)values[2], (INPUT4)values[3], (INPUT5)values[4], (INPUT6)values[5], (INPUT7)values[6], (INPUT8)values[7])
 		);
@@ -313,11 +329,11 @@ public class Cases {
 	 * to a <em>composition function</em>. This can be useful for quickly writing cases of complex objects that rely on
 	 * various generators for their properties.
 	 *
-	 * @see #compose(CaseCompositionMode, Case[], BiFunction)
+	 * @see #compose(CompositionPlanner, Case[], BiFunction)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, INPUT9, OUTPUT> Case<OUTPUT> compose(
-		CaseCompositionMode caseCompositionMode,
+		CompositionPlanner planner,
 		Case<INPUT1> baseCase1,
 		Case<INPUT2> baseCase2,
 		Case<INPUT3> baseCase3,
@@ -330,7 +346,7 @@ public class Cases {
 		NineCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, INPUT9, OUTPUT> compositionFunction
 	) {
 		return compose(
-			caseCompositionMode,
+			planner,
 			new Case[] { baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7, baseCase8, baseCase9 },
 			(random, values) -> compositionFunction.apply(random, (INPUT1)values[0], (INPUT2)values[1], (INPUT3)values[2], (INPUT4)values[3], (INPUT5)values[4], (INPUT6)values[5], (INPUT7)values[6], (INPUT8)values[7], (INPUT9)values[8])
 		);
@@ -339,6 +355,150 @@ public class Cases {
 		OUTPUT apply(Random random, INPUT1 input1, INPUT2 input2, INPUT3 input3, INPUT4 input4, INPUT5 input5, INPUT6 input6, INPUT7 input7, INPUT8 input8, INPUT9 input9);
 	}
 
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case[] baseCases,
+		BiFunction<Random, Object[], OUTPUT> composition
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCases, composition);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		TwoCaseCompositionFunction<INPUT1, INPUT2, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, compositionFunction);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, INPUT3, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		ThreeCaseCompositionFunction<INPUT1, INPUT2, INPUT3, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, baseCase3, compositionFunction);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		FourCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, baseCase3, baseCase4, compositionFunction);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		FiveCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, compositionFunction);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		SixCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, compositionFunction);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		Case<INPUT7> baseCase7,
+		SevenCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7, compositionFunction);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		Case<INPUT7> baseCase7,
+		Case<INPUT8> baseCase8,
+		EightCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7, baseCase8, compositionFunction);
+	}
+
+	/**
+	 * Equivalent to the {@link CompositionPlanner} overload of this method, which replaced it; it remains for code
+	 * compiled against earlier versions.
+	 */
+	public static <INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, INPUT9, OUTPUT> Case<OUTPUT> compose(
+		CaseCompositionMode caseCompositionMode,
+		Case<INPUT1> baseCase1,
+		Case<INPUT2> baseCase2,
+		Case<INPUT3> baseCase3,
+		Case<INPUT4> baseCase4,
+		Case<INPUT5> baseCase5,
+		Case<INPUT6> baseCase6,
+		Case<INPUT7> baseCase7,
+		Case<INPUT8> baseCase8,
+		Case<INPUT9> baseCase9,
+		NineCaseCompositionFunction<INPUT1, INPUT2, INPUT3, INPUT4, INPUT5, INPUT6, INPUT7, INPUT8, INPUT9, OUTPUT> compositionFunction
+	) {
+		return compose((CompositionPlanner) caseCompositionMode, baseCase1, baseCase2, baseCase3, baseCase4, baseCase5, baseCase6, baseCase7, baseCase8, baseCase9, compositionFunction);
+	}
+
 	@SafeVarargs
 	public static <T> Case<T> of(Subcase<T>... subcases) {
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(subcases);
@@ -350,7 +510,7 @@ public class Cases {
 	public static <T> Case<T> of(Supplier<T>... subcases) {
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(subcases);
 
-		Set<Subcase<T>> subcasesSet = new HashSet<>(subcases.length);
+		Set<Subcase<T>> subcasesSet = new LinkedHashSet<>(subcases.length);
 		for(Supplier<T> supplier : subcases) {
 			subcasesSet.add(r -> supplier.get());
 		}
@@ -362,7 +522,7 @@ public class Cases {
 	public static <T> Case<T> of(T... literalCases) {
 		FuzzyPreconditions.checkNotNull(literalCases);
 
-		Set<Subcase<T>> subcases = new HashSet<>(literalCases.length);
+		Set<Subcase<T>> subcases = new LinkedHashSet<>(literalCases.length);
 		for(T t : literalCases) {
 			subcases.add(r -> t);
 		}
@@ -374,7 +534,7 @@ public class Cases {
 	public static <T> Case<T> ofDelegates(Supplier<Case<T>>... delegateCases) {
 		FuzzyPreconditions.checkNotNullAndContainsNoNulls(delegateCases);
 
-		Set<Subcase<T>> subcases = new HashSet<>();
+		Set<Subcase<T>> subcases = new LinkedHashSet<>();
 		for(Supplier<Case<T>> delegate : delegateCases) {
 			subcases.addAll(delegate.get().getSubcases());
 		}
@@ -382,6 +542,53 @@ public class Cases {
 		return () -> subcases;
 	}
 
+	/**
+	 * Returns a case whose subcases are the {@linkplain Subcases#cacheable(Subcase) cacheable} versions of the subcases
+	 * of {@code original}.
+	 */
+	public static <T> Case<T> cacheable(Case<T> original) {
+		FuzzyPreconditions.checkNotNull(original);
+
+		return new Case<T>() {
+			@Override
+			public Set<Subcase<T>> getSubcases() {
+				return Subcases.map(original.getSubcases(), Subcases::cacheable);
+			}
+
+			@Override
+			public int getSubcaseCount() {
+				return original.getSubcaseCount();
+			}
+		};
+	}
+
+	/**
+	 * Returns a case whose values are generated from a case derived from the current value of another generator, for
+	 * values that are constrained by another input of the test. For example, an index into a list:
+	 *
+	 * <pre>{@code
+	 * Generator<List<String>> list = Generator.of(Any.listOf(Any.string()).withSizeOf(Any.integer().inRange(1, 10)));
+	 * Generator<Integer> index = Generator.dependingOn(list, l -> Any.integer().inRange(0, l.size() - 1));
+	 * }</pre>
+	 *
+	 * <p>The derived case is only created when a value is generated, so it can use the source's value directly instead
+	 * of generating values and rejecting those that do not fit. Since the number of subcases of the derived case can
+	 * vary with the source's value, the fuzzy engine plans the dependent case as a single subcase, which adds no
+	 * iterations to the test; instead, successive iterations rotate through the subcases of the derived case. The case
+	 * derived from the last value of {@code source} is reused for as long as the source's values are equal to it, so
+	 * {@code cases} must depend on nothing but the value it is given.</p>
+	 *
+	 * @param source the generator whose value the case depends on.
+	 * @param cases derives the case to generate a value from, given the value of {@code source}.
+	 */
+	public static <S, T> Case<T> dependingOn(Generator<S> source, Function<? super S, ? extends Case<T>> cases) {
+		FuzzyPreconditions.checkNotNull(source);
+		FuzzyPreconditions.checkNotNull(cases);
+
+		Subcase<T> subcase = new Subcases.Dependent<>(source, cases);
+		return () -> Collections.singleton(subcase);
+	}
+
 	public static <T, U> Case<U> map(Case<T> original, Function<T, U> mapping) {
 		FuzzyPreconditions.checkNotNull(original);
 		FuzzyPreconditions.checkNotNull(mapping);
@@ -396,7 +603,7 @@ public class Cases {
 		return () -> {
 			Set<Subcase<T>> sourceSubcases = original.getSubcases();
 
-			Set<Subcase<U>> mappedSubcases = new HashSet<>(sourceSubcases.size());
+			Set<Subcase<U>> mappedSubcases = new LinkedHashSet<>(sourceSubcases.size());
 			for(Subcase<T> source : sourceSubcases) {
 				mappedSubcases.add(r -> mapping.apply(r, source.generate(r)));
 			}
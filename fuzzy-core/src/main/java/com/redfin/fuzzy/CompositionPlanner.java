@@ -0,0 +1,44 @@
+package com.redfin.fuzzy;
+
+import java.util.Iterator;
+
+/**
+ * Decides which combinations of subcases a test executes, or which combinations of the subcases of its base cases a
+ * {@linkplain Cases#compose(CompositionPlanner, Case[], java.util.function.BiFunction) composed case} contains. The
+ * {@link CaseCompositionMode} constants are the planners built into the library; implement this interface to plug in
+ * another algorithm, for example one that produces fewer combinations for a specific suite.
+ *
+ * <p>Planners work on subcase indices only: they are given the number of subcases of each parameter, and return rows
+ * that hold, for each parameter, the index of one of its subcases. For example, a planner given the counts
+ * {@code [2, 3]} might return the rows {@code [0, 0]}, {@code [1, 1]} and {@code [0, 2]}.</p>
+ *
+ * <p>Planners must be deterministic, since a test's iterations are identified by their index in the plan; must return
+ * each subcase of each parameter in at least one row; and must be safe to call from several threads at once. The rows
+ * are read lazily and only once, so a planner can compute them as they are requested.</p>
+ */
+@FunctionalInterface
+public interface CompositionPlanner {
+
+	/**
+	 * Returns the rows of the plan for parameters with the given numbers of subcases. Each row has one element per
+	 * parameter, which must be at least {@code 0} and less than that parameter's subcase count.
+	 *
+	 * @param subcaseCounts the number of subcases of each parameter; every count is at least {@code 1}, and there is at
+	 *        least one parameter. Planners must not modify the array.
+	 */
+	Iterator<int[]> plan(int[] subcaseCounts);
+
+	/**
+	 * Returns a planner that plans the same rows as {@code planner}, reordered greedily so that each row covers as many
+	 * pairs of subcases not covered by the rows before it as possible. Use it for runs that may stop before the end of
+	 * their plan, such as runs with a time budget, so that the rows they do execute cover as many pairs as they can.
+	 * The rows of the plan are computed all at once rather than lazily.
+	 *
+	 * @param planner the planner whose rows to reorder. Cannot be {@code null}.
+	 */
+	static CompositionPlanner orderedByCoverage(CompositionPlanner planner) {
+		FuzzyPreconditions.checkNotNull(planner);
+		return planner instanceof CoverageOrderedPlanner ? planner : new CoverageOrderedPlanner(planner);
+	}
+
+}
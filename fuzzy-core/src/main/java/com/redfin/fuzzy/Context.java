@@ -1,12 +1,21 @@
 package com.redfin.fuzzy;
 
-import com.redfin.fuzzy.pairwise.Pairwise;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
-import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
 
 /**
  * The principal engine of the fuzzy evaluation workflow.
@@ -18,6 +27,13 @@ import java.util.Stack;
  * <p>The context is backed by state stored in a thread local and therefore any generators must be initialized on the
  * same thread where {@code Context.init} is executed.
  * </p>
+ * <p>To run tests without thread-local state, for example to interleave several tests on the threads of a pool, use a
+ * {@link ContextHandle} instead.
+ * </p>
+ * <p>Stack traces describing where generators were declared are only captured during a test's first iteration; later
+ * iterations reuse them. Set the {@code fuzzy.diagnostics} system property to {@code true} to capture them on every
+ * iteration, at some cost to performance.
+ * </p>
  *
  * <p>Example usage:</p>
  *
@@ -51,16 +67,122 @@ public class Context {
 	 * Initializes the context in preparation for running a single test (the context should be initialized for each
 	 * test individually).
 	 *
-	 * @param caseCompositionMode the algorithm {@code Context} should use to build permutations of the test variables.
+	 * @param planner the algorithm {@code Context} should use to build permutations of the test variables, typically
+	 *        one of the {@link CaseCompositionMode} constants.
 	 * @param randomSeed the seed to use for all randomized calls for this test; setting the seed consistently makes the
 	  *       randomization deterministic across different test passes.
 	 */
-	public static void init(CaseCompositionMode caseCompositionMode, long randomSeed) {
+	public static void init(CompositionPlanner planner, long randomSeed) {
+		init(planner, randomSeed, IterationSelector.ALL);
+	}
+
+	/**
+	 * Initializes the context in preparation for running only some iterations of a single test. Selected iterations
+	 * generate the same values as they would if every iteration were executed.
+	 *
+	 * <p>If the selector does not select any iteration of the test's plan, the first read of a generator throws an
+	 * {@link IterationNotSelectedException}.</p>
+	 *
+	 * @param planner the algorithm {@code Context} should use to build permutations of the test variables, typically
+	 *        one of the {@link CaseCompositionMode} constants.
+	 * @param randomSeed the seed to use for all randomized calls for this test; setting the seed consistently makes the
+	 *       randomization deterministic across different test passes.
+	 * @param iterationSelector the iterations of the test to execute.
+	 */
+	public static void init(
+		CompositionPlanner planner,
+		long randomSeed,
+		IterationSelector iterationSelector
+	) {
+		init(planner, randomSeed, iterationSelector, RandomSource.Factory.SPLITTABLE_RANDOM);
+	}
+
+	/**
+	 * Initializes the context in preparation for running only some iterations of a single test, drawing random values
+	 * from sources created by the given factory. The same seed generates different values with different factories.
+	 *
+	 * @param planner the algorithm {@code Context} should use to build permutations of the test variables, typically
+	 *        one of the {@link CaseCompositionMode} constants.
+	 * @param randomSeed the seed to use for all randomized calls for this test; setting the seed consistently makes the
+	 *       randomization deterministic across different test passes.
+	 * @param iterationSelector the iterations of the test to execute.
+	 * @param randomSources creates the random sources from which generators draw their values.
+	 */
+	public static void init(
+		CompositionPlanner planner,
+		long randomSeed,
+		IterationSelector iterationSelector,
+		RandomSource.Factory randomSources
+	) {
+		Context c = create(planner, randomSeed, iterationSelector, randomSources);
+
 		if(CONTEXT.get() != null)
 			throw CONTEXT.get().newReinitializedException();
 
-		Context c = new Context(caseCompositionMode);
-		c.random.setSeed(randomSeed);
+		CONTEXT.set(c);
+	}
+
+	/**
+	 * Initializes the context in preparation for running a single test. Equivalent to
+	 * {@link #init(CompositionPlanner, long)}, which replaced it; it remains for code compiled against earlier
+	 * versions.
+	 */
+	public static void init(CaseCompositionMode caseCompositionMode, long randomSeed) {
+		init((CompositionPlanner) caseCompositionMode, randomSeed);
+	}
+
+	/**
+	 * Initializes the context in preparation for running only some iterations of a single test. Equivalent to
+	 * {@link #init(CompositionPlanner, long, IterationSelector)}, which replaced it; it remains for code compiled
+	 * against earlier versions.
+	 */
+	public static void init(
+		CaseCompositionMode caseCompositionMode,
+		long randomSeed,
+		IterationSelector iterationSelector
+	) {
+		init((CompositionPlanner) caseCompositionMode, randomSeed, iterationSelector);
+	}
+
+	/**
+	 * Initializes the context in preparation for running only some iterations of a single test, drawing random values
+	 * from sources created by the given factory. Equivalent to
+	 * {@link #init(CompositionPlanner, long, IterationSelector, RandomSource.Factory)}, which replaced it; it remains
+	 * for code compiled against earlier versions.
+	 */
+	public static void init(
+		CaseCompositionMode caseCompositionMode,
+		long randomSeed,
+		IterationSelector iterationSelector,
+		RandomSource.Factory randomSources
+	) {
+		init((CompositionPlanner) caseCompositionMode, randomSeed, iterationSelector, randomSources);
+	}
+
+	/**
+	 * Initializes the context so that it executes iterations of a test that has already been started by another
+	 * context, typically on another thread. Unlike a context created by {@link #init(CompositionPlanner, long)}, this
+	 * context has no current iteration until {@link #next()} is called:
+	 *
+	 * <pre>{@code
+	 * Context.init(plan);
+	 * try {
+	 *   while(Context.next()) {
+	 *     executeSingleTestIteration();
+	 *   }
+	 * }
+	 * finally {
+	 *   Context.cleanUp();
+	 * }
+	 * }</pre>
+	 *
+	 * @param plan the plan of the test being executed, as returned by {@link #plan()} on the context that started it.
+	 */
+	public static void init(IterationPlan plan) {
+		Context c = create(plan);
+
+		if(CONTEXT.get() != null)
+			throw CONTEXT.get().newReinitializedException();
 
 		CONTEXT.set(c);
 	}
@@ -70,23 +192,112 @@ public class Context {
 	 * iterations are necessary to execute all test cases.
 	 */
 	public static boolean next() {
-		Context c = CONTEXT.get();
-		if(c == null)
-			throw newUninitializedException();
-		if(c.iterations == null || c.iterations.size() == 0)
-			return false;
-		else if(c.iterations.size() > 1) {
-			c.previousGenerators = c.generators;
-			c.generators = new HashMap<>();
-			c.locked = false;
-			c.iterations.pop();
+		return current().advance();
+	}
 
-			return true;
-		}
-		else { // c.iterations.size == 1
-			c.iterations.pop();
-			return false;
-		}
+	/**
+	 * Declares a group of generators, typically the generators of a helper method that builds a single input of the
+	 * test out of several values. The {@code declarations} are executed immediately, and must declare the group's
+	 * generators without reading any of them; whatever they return is returned as is, for example a supplier that
+	 * builds the input from the group's generators:
+	 *
+	 * <pre>{@code
+	 * Supplier<Address> address = Context.group("address", () -> {
+	 *   Generator<String> street = Generator.of(Any.string());
+	 *   Generator<String> city = Generator.of("Seattle", "Portland");
+	 *   Generator<Integer> zip = Generator.of(Any.integer());
+	 *   return () -> new Address(street.get(), city.get(), zip.get());
+	 * });
+	 * }</pre>
+	 *
+	 * <p>The generators of a group are planned among themselves first, and the group then acts as a single parameter
+	 * of the test's plan, whose values are the iterations of the group's own plan. The values of the group's
+	 * generators are combined pairwise with each other, and the group's iterations are combined pairwise with the
+	 * values of the test's other generators and with the iterations of other groups, so each input keeps the
+	 * combinations of its own values that its group's plan chose. The generators of a group must be declared in the
+	 * same group in every iteration. Groups can be nested.</p>
+	 *
+	 * @param name the name of the group, which distinguishes it from other groups declaring the same generators.
+	 * @param declarations declares the generators of the group.
+	 *
+	 * @throws IllegalStateException if the declarations read the value of a generator.
+	 */
+	public static <T> T group(String name, Supplier<T> declarations) {
+		return current().declareGroup(name, declarations);
+	}
+
+	/**
+	 * Generates the values of up to {@code iterations} upcoming iterations of the current test on a helper thread, while
+	 * the current iteration executes. Prefetched values are identical to values generated when they are read, since
+	 * each value is generated from a random stream of its own; prefetching only moves the work off the test's thread.
+	 * Only generators that earlier iterations of the test have read are prefetched. A subcase that reads another
+	 * generator of the test reads it from the iteration being prefetched, and a value that cannot be generated on the
+	 * helper thread, for example because its subcase reads a generator of another test, is simply generated when it is
+	 * read.
+	 *
+	 * <p>Prefetching is worthwhile for tests whose values are expensive to generate and that spend much of their time
+	 * waiting, for example on I/O. Subcases must be safe to execute on another thread.</p>
+	 *
+	 * @param iterations the number of iterations to prefetch, or {@code 0} to disable prefetching.
+	 *
+	 * @throws IllegalArgumentException if {@code iterations} is negative.
+	 */
+	public static void prefetch(int iterations) {
+		current().setPrefetchDepth(iterations);
+	}
+
+	/**
+	 * Returns the plan of iterations computed for the current test, or {@code null} if the plan has not been computed
+	 * yet. The plan is computed when the test's first iteration first reads the value of a generator.
+	 */
+	public static IterationPlan plan() {
+		return current().currentPlan();
+	}
+
+	/**
+	 * Returns the index of the current iteration within the test's {@linkplain #plan() plan}, or {@code -1} if there
+	 * is no current iteration. The first iteration of a test has index {@code 0}, unless the context was initialized
+	 * with an {@link IterationSelector} that skips it or {@linkplain #prioritize(Iterable) prioritizes} another; its
+	 * actual index is then known once the plan has been computed.
+	 */
+	public static int iterationIndex() {
+		return current().currentIterationIndex();
+	}
+
+	/**
+	 * Returns the signature of the current iteration, or {@code null} if there is no current iteration. Unlike its
+	 * {@linkplain #iterationIndex() index}, an iteration's signature does not depend on the iterations that precede it
+	 * in the plan.
+	 */
+	public static IterationSignature signature() {
+		return current().currentSignature();
+	}
+
+	/**
+	 * Executes the iterations with the given signatures, typically those of iterations that failed in an earlier run,
+	 * before any other iteration of the current test. Prioritized iterations keep their index, so they generate the
+	 * same values as they would in plan order, and are still subject to the context's {@link IterationSelector}.
+	 * Signatures that do not match an iteration of the test's plan, for example because the test's generators have
+	 * changed since they were recorded, are ignored.
+	 *
+	 * <p>This method must be called before the first iteration of the test reads a generator, since that computes the
+	 * plan and starts its first iteration.</p>
+	 *
+	 * @param signatures the signatures of the iterations to execute first, in order.
+	 *
+	 * @throws IllegalStateException if the test's plan has already been computed.
+	 */
+	public static void prioritize(Iterable<IterationSignature> signatures) {
+		current().setPrioritized(signatures);
+	}
+
+	/**
+	 * Returns how much of the current test's input space the iterations started so far have covered, or {@code null}
+	 * if the test's plan has not been computed yet. When the test shares its plan with other contexts, the coverage
+	 * includes the iterations started by all of them.
+	 */
+	public static Coverage coverage() {
+		return current().currentCoverage();
 	}
 
 	/**
@@ -94,6 +305,10 @@ public class Context {
 	 * {@code init} can be called for the next test.
 	 */
 	public static void cleanUp() {
+		Context c = CONTEXT.get();
+		if(c != null)
+			c.close();
+
 		CONTEXT.remove();
 	}
 
@@ -102,19 +317,7 @@ public class Context {
 	 * iteration. Useful for collecting debugging information.
 	 */
 	public static Map<Generator, Object> valuesForCurrentIteration() {
-		Context c = CONTEXT.get();
-		if(c == null)
-			throw newUninitializedException();
-
-		Map<Generator, Object> res = new HashMap<>();
-		if(c.iterations != null && !c.iterations.isEmpty())
-			for(Map.Entry<Generator, Iteration> variable : c.iterations.peek().entrySet()) {
-				Iteration i = variable.getValue();
-				if(i.generated)
-					res.put(variable.getKey(), i.getCurrent());
-			}
-
-		return res;
+		return current().currentValues();
 	}
 
 	/**
@@ -131,56 +334,251 @@ public class Context {
 	 */
 	public static void reportTo(StringBuilder sb) {
 		Context c = CONTEXT.get();
-		if(c == null || c.iterations == null || c.iterations.isEmpty())
+		if(c != null)
+			c.describeTo(sb);
+	}
+
+	private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+
+	private static Context current() {
+		Context c = CONTEXT.get();
+		if(c == null)
+			throw newUninitializedException();
+
+		return c;
+	}
+
+	/*package*/ static Context getUnlocked() {
+		return current().unlocked();
+	}
+
+	/*package*/ static Context create(
+		CompositionPlanner planner,
+		long randomSeed,
+		IterationSelector iterationSelector,
+		RandomSource.Factory randomSources
+	) {
+		FuzzyPreconditions.checkNotNull("An iteration selector is required.", iterationSelector);
+		FuzzyPreconditions.checkNotNull("A random source factory is required.", randomSources);
+
+		return new Context(planner, randomSeed, iterationSelector, randomSources);
+	}
+
+	/*package*/ static Context create(IterationPlan plan) {
+		FuzzyPreconditions.checkNotNull("An iteration plan is required.", plan);
+
+		return new Context(plan);
+	}
+
+	// The instance methods below implement both the thread-local API above and ContextHandle.
+
+	/*package*/ Context unlocked() {
+		if(locked)
+			throw newAlreadyLockedException();
+
+		return this;
+	}
+
+	/*package*/ boolean advance() {
+		if(plan == null || finished)
+			return false;
+
+		Prefetched next = claim();
+		if(next == null) {
+			finish();
+			return false;
+		}
+		else {
+			generators.clear();
+			generatorCases.clear();
+			generatorGroups.clear();
+			fingerprint = IterationPlan.EMPTY_FINGERPRINT;
+			locked = false;
+			begin(next.row, next.iteration);
+
+			return true;
+		}
+	}
+
+	/*package*/ <T> T declareGroup(String name, Supplier<T> declarations) {
+		FuzzyPreconditions.checkNotNull("A group name is required.", name);
+		FuzzyPreconditions.checkNotNull("Group declarations are required.", declarations);
+
+		if(locked)
+			throw newAlreadyLockedException();
+
+		IterationPlan.Group group = new IterationPlan.Group();
+		if(plan == null) {
+			// First iteration: record which generators each group declares. Generators declared before the first group
+			// become members of the test's top-level group.
+			if(layout == null) {
+				layout = new IterationPlan.Group();
+				for(int slot = 0; slot < generators.size(); slot++)
+					layout.members.add(slot);
+			}
+			innermostGroup().members.add(group);
+		}
+
+		long enclosingGroup = groupKey;
+		fingerprint = IterationPlan.fingerprintGroup(fingerprint, name, true);
+		groupKey = IterationPlan.fingerprintGroup(groupKey, name, true);
+		openGroups.push(group);
+		try {
+			return declarations.get();
+		}
+		finally {
+			openGroups.pop();
+			groupKey = enclosingGroup;
+			fingerprint = IterationPlan.fingerprintGroup(fingerprint, name, false);
+		}
+	}
+
+	private IterationPlan.Group innermostGroup() {
+		return openGroups.isEmpty() ? layout : openGroups.peek();
+	}
+
+	/*package*/ IterationPlan currentPlan() { return plan; }
+
+	/*package*/ int currentIterationIndex() { return iterationIndex; }
+
+	/*package*/ IterationSignature currentSignature() {
+		return currentRow == null ? null : plan.signature(currentRow);
+	}
+
+	/*package*/ Coverage currentCoverage() {
+		return plan == null ? null : plan.coverage();
+	}
+
+	/*package*/ void setPrioritized(Iterable<IterationSignature> signatures) {
+		FuzzyPreconditions.checkNotNull("Iteration signatures are required.", signatures);
+
+		if(plan != null)
+			throw new IllegalStateException(
+				"Iterations can only be prioritized before the first generator of a test is read."
+			);
+
+		List<IterationSignature> prioritized = new ArrayList<>();
+		for(IterationSignature signature : signatures)
+			prioritized.add(FuzzyPreconditions.checkNotNull(signature));
+
+		this.prioritized = prioritized;
+	}
+
+	/*package*/ void setPrefetchDepth(int iterations) {
+		if(iterations < 0)
+			throw new IllegalArgumentException("The number of iterations to prefetch cannot be negative.");
+
+		prefetchDepth = iterations;
+	}
+
+	/*package*/ Map<Generator, Object> currentValues() {
+		Map<Generator, Object> res = new HashMap<>();
+		if(currentIteration != null)
+			for(int slot = 0; slot < currentIteration.length; slot++) {
+				Iteration i = currentIteration[slot];
+				if(i.isGenerated())
+					res.put(plan.variables.get(slot).g, i.getCurrent());
+			}
+
+		return res;
+	}
+
+	/*package*/ void describeTo(StringBuilder sb) {
+		if(currentIteration == null)
 			return;
 
-		for(Map.Entry<Generator, Iteration> variable : c.iterations.peek().entrySet()) {
-			Iteration i = variable.getValue();
-			if(i.generated) {
+		for(int slot = 0; slot < currentIteration.length; slot++) {
+			Iteration i = currentIteration[slot];
+			if(i.isGenerated()) {
 				sb.append("  ");
 				i.describeTo(sb);
 				sb.append(" from generator ");
-				sb.append(variable.getKey().getName());
+				sb.append(plan.variables.get(slot).g.getName());
 				sb.append('\n');
 			}
 		}
 	}
 
-	private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<>();
+	/*package*/ void close() {
+		stopPrefetching();
+	}
 
-	/*package*/ static Context getUnlocked() {
-		Context c = CONTEXT.get();
-		if(c == null) {
-			throw newUninitializedException();
-		}
-		else if (c.locked) {
-			throw c.newAlreadyLockedException();
-		}
-		else {
-			return c;
-		}
+	private Context(
+		CompositionPlanner planner,
+		long randomSeed,
+		IterationSelector iterationSelector,
+		RandomSource.Factory randomSources
+	) {
+		this.planner = FuzzyPreconditions.checkNotNull("A composition planner is required.", planner);
+		this.randomSeed = randomSeed;
+		this.iterationSelector = iterationSelector;
+		this.randomSources = randomSources;
+
+		contextInitSite = new Throwable();
 	}
 
-	private Context(CaseCompositionMode caseCompositionMode) {
-		this.caseCompositionMode = FuzzyPreconditions.checkNotNull(
-			"A case composition mode is required.",
-			caseCompositionMode
-		);
+	private Context(IterationPlan plan) {
+		this(plan.planner, plan.randomSeed, plan.iterationSelector, plan.randomSources);
+		this.plan = plan;
+		this.assignedSlots = new boolean[plan.variables.size()];
+		this.iterationIndex = -1;
+	}
+
+	// When set, creation sites and lock sites are captured on every iteration instead of only the first.
+	private static final boolean DIAGNOSTICS = Boolean.getBoolean("fuzzy.diagnostics");
 
-		contextInitTrace = Thread.currentThread().getStackTrace();
+	/*package*/ static boolean shouldCaptureCreationSites() {
+		Context c = CONTEXT.get();
+		return c == null || c.capturesCreationSites();
 	}
 
-	private final Random random = new Random();
-	private final CaseCompositionMode caseCompositionMode;
-	private final StackTraceElement[] contextInitTrace;
+	/*package*/ boolean capturesCreationSites() {
+		return DIAGNOSTICS || plan == null;
+	}
 
-	private boolean locked;
-	private StackTraceElement[] lockTrace;
+	private final CompositionPlanner planner;
+	private final long randomSeed;
+	private final IterationSelector iterationSelector;
+	private final RandomSource.Factory randomSources;
 
-	private Map<Generator, Case[]> previousGenerators;
-	private Map<Generator, Case[]> generators = new HashMap<>();
+	// Stack traces are only materialized when an error message needs them.
+	private final Throwable contextInitSite;
 
-	private Stack<Map<Generator, Iteration>> iterations;
+	private boolean locked;
+	private Throwable lockSite;
+
+	// Generators are identified by a dense slot number, assigned in the order they were registered during the first
+	// iteration. Later iterations map each generator back onto the same slot, so reading a value is an array access.
+	private final List<Generator> generators = new ArrayList<>();
+	private final List<Case[]> generatorCases = new ArrayList<>();
+
+	// The group each generator was declared in, identified by the names of the groups enclosing it, so that a later
+	// iteration that moves a generator to another group is caught even when the generator itself matches.
+	private final List<Long> generatorGroups = new ArrayList<>();
+	private long groupKey = IterationPlan.EMPTY_FINGERPRINT;
+	private Map<Generator, Integer> slotsByGenerator;
+	private long fingerprint = IterationPlan.EMPTY_FINGERPRINT;
+	private boolean[] assignedSlots;
+	private boolean inconsistent;
+
+	// The groups declared during the first iteration, or null if it declared none, and the groups being declared.
+	private IterationPlan.Group layout;
+	private final Deque<IterationPlan.Group> openGroups = new ArrayDeque<>();
+
+	// The plan is walked lazily: each call to next() claims exactly one iteration, so only the current iteration's
+	// values are ever held in memory.
+	private List<IterationSignature> prioritized;
+	private IterationPlan plan;
+	private int iterationIndex;
+	private IterationPlan.Row currentRow;
+	private Iteration[] currentIteration;
+	private boolean finished;
+
+	// Iterations claimed ahead of the current one, whose values a helper thread generates in the background.
+	private int prefetchDepth;
+	private final Queue<Prefetched> prefetched = new ArrayDeque<>();
+	private boolean[] readSlots;
+	private ExecutorService prefetcher;
 
 	/*package*/ <T> void register(Generator<T> generator, Case<?>[] cases) {
 		FuzzyPreconditions.checkNotNull(generator);
@@ -189,31 +587,90 @@ public class Context {
 		if(locked) {
 			throw newAlreadyLockedException();
 		}
-		else if(generators.containsKey(generator)) {
-			throwDuplicateGenerator(generator);
+
+		if(plan == null) {
+			// First iteration: the registration order defines the slots.
+			if(slotsByGenerator == null)
+				slotsByGenerator = new HashMap<>();
+			if(slotsByGenerator.containsKey(generator))
+				throwDuplicateGenerator(generator);
+
+			generator.slot = generators.size();
+			slotsByGenerator.put(generator, generator.slot);
+			if(layout != null)
+				innermostGroup().members.add(generator.slot);
+		}
+		else {
+			// Subsequent iterations are only checked against the first one when the context is locked. Until then,
+			// assume the generator matches the one declared at the same position, so that its name is available.
+			int position = generators.size();
+			if(position < plan.variables.size() && (!generator.hasName() || !generator.hasCreationSite()))
+				generator.adoptIdentityOf(plan.variables.get(position).g);
 		}
 
-		generators.put(generator, cases);
+		fingerprint = IterationPlan.fingerprint(fingerprint, generator, cases.length);
+
+		generators.add(generator);
+		generatorCases.add(cases);
+		generatorGroups.add(groupKey);
 	}
 
 	/*package*/ <T> T currentValue(Generator<T> generator) {
-		lock();
+		if(PREFETCHING.get() != 0 || (plan != null && plan.generating.get() != 0))
+			return generatingValue(generator);
+
+		if(!locked)
+			lock();
+
+		int slot = generator.slot;
+		if(currentIteration == null || slot < 0 || slot >= currentIteration.length)
+			throw newUnregisteredGeneratorException(generator);
+
+		@SuppressWarnings("unchecked")
+		T value = (T)currentIteration[slot].get();
+		return value;
+	}
+
+	private <T> T generatingValue(Generator<T> generator) {
+		// A subcase that reads another generator of the test, for example a dependent case, reads it from the iteration
+		// whose value is being generated. That iteration is not necessarily this context's current one: the subcases
+		// were declared by the test's first iteration, and may be generating a value for another context sharing the
+		// plan, or for an iteration being prefetched.
+		Iteration[] generating = GENERATING.get();
+		int slot = generator.slot;
+		if(generating != null && generating[0].plan == plan && slot >= 0 && slot < generating.length) {
+			@SuppressWarnings("unchecked")
+			T value = (T)generating[slot].get();
+			return value;
+		}
+
+		if(Thread.currentThread() instanceof PrefetchThread)
+			throw new IllegalStateException("Generators of other tests cannot be read while prefetching.");
 
-		Iteration i = iterations.peek().get(generator);
-		if(i == null)
+		if(!locked)
+			lock();
+
+		slot = generator.slot;
+		if(currentIteration == null || slot < 0 || slot >= currentIteration.length)
 			throw newUnregisteredGeneratorException(generator);
 
 		@SuppressWarnings("unchecked")
-		T value = (T)i.get(random);
+		T value = (T)currentIteration[slot].get();
 		return value;
 	}
 
 	/*package*/ void lock() {
 		if(!locked) {
+			if(!openGroups.isEmpty())
+				throw new IllegalStateException(
+					"Generators cannot be read while a group is being declared. Return a supplier that reads them " +
+					"instead."
+				);
+
 			locked = true;
-			lockTrace = Thread.currentThread().getStackTrace();
+			lockSite = (plan == null || DIAGNOSTICS) ? new Throwable() : null;
 
-			if (iterations == null) {
+			if (plan == null) {
 				generateTestCases();
 			}
 			else {
@@ -223,76 +680,242 @@ public class Context {
 	}
 
 	private void validateConsistency() {
-		// TODO: better consistency validation
-
-		if(previousGenerators == null) return;
+		List<IterationPlan.Variable> variables = plan.variables;
+
+		// Generators are almost always declared exactly as they were in the first iteration, in which case each one
+		// takes the slot matching its position. Generators that were not explicitly named are only identified by their
+		// positions in the fingerprint, so the types of their cases are compared as well: two such generators that
+		// swap places are then caught, unless their cases also have the same types.
+		if(fingerprint == plan.fingerprint && generators.size() == variables.size() && casesMatchPositions()) {
+			for(int slot = 0; slot < generators.size(); slot++)
+				generators.get(slot).slot = slot;
+			return;
+		}
 
-		for(Generator g : generators.keySet()) {
-			if(!previousGenerators.containsKey(g)) {
-				throw newInconsistentGeneratorsException();
+		// Otherwise, match each generator individually to find out whether they were merely declared in a different
+		// order or whether they actually differ.
+		inconsistent = false;
+		Arrays.fill(assignedSlots, false);
+		for(Generator generator : generators)
+			generator.forgetAdoptedIdentity();
+		for(int position = 0; position < generators.size(); position++) {
+			assignSlot(generators.get(position), position);
+
+			int slot = generators.get(position).slot;
+			if(slot >= 0) {
+				IterationPlan.Variable variable = variables.get(slot);
+				if(variable.group != generatorGroups.get(position))
+					inconsistent = true;
+				else if(isIdentifiedByPosition(generators.get(position)))
+					inconsistent |= !variable.declaredLike(generatorCases.get(position));
 			}
 		}
 
-		// Technically, nothing bad happens if this run does not define a generator that the previous run did; still
-		// it probably means that they're setting tests up weird so we'll still complain.
-		if(generators.size() != previousGenerators.size())
+		// Every generator has now been matched to a distinct slot from the first iteration, so the sets of generators
+		// are the same exactly when nothing failed to match and the counts agree. Technically, nothing bad happens if
+		// this run does not define a generator that the previous run did; still it probably means that they're
+		// setting tests up weird so we'll still complain.
+		if(inconsistent || generators.size() != variables.size())
 			throw newInconsistentGeneratorsException();
 	}
 
+	private boolean casesMatchPositions() {
+		List<IterationPlan.Variable> variables = plan.variables;
+		for(int position = 0; position < generatorCases.size(); position++) {
+			if(isIdentifiedByPosition(generators.get(position))
+				&& !variables.get(position).declaredLike(generatorCases.get(position)))
+				return false;
+		}
+		return true;
+	}
+
+	// Generators that were not explicitly named take the identity of the generator declared at the same position.
+	private static boolean isIdentifiedByPosition(Generator<?> generator) {
+		return !generator.hasName() || generator.hasDefaultName();
+	}
+
+	private void assignSlot(Generator<?> generator, int position) {
+		// Check the slot matching the generator's position first and only fall back to a lookup when it differs.
+		List<IterationPlan.Variable> variables = plan.variables;
+		int slot = position;
+		Generator expected = slot < variables.size() ? variables.get(slot).g : null;
+
+		if(!generator.hasName()) {
+			// The generator's creation site wasn't captured, so it can only be identified by its position.
+			if(expected == null || !expected.hasDefaultName()) {
+				generator.nameUnknown();
+				slot = -1;
+			}
+		}
+		else if(expected == null || !expected.equals(generator)) {
+			Integer existing = plan.slotsByGenerator.get(generator);
+			slot = existing == null ? -1 : existing;
+		}
+
+		if(slot < 0) {
+			inconsistent = true;
+		}
+		else if(assignedSlots[slot]) {
+			generator.adoptIdentityOf(variables.get(slot).g);
+			throwDuplicateGenerator(generator);
+		}
+		else {
+			assignedSlots[slot] = true;
+			if(!generator.hasName() || !generator.hasCreationSite())
+				generator.adoptIdentityOf(variables.get(slot).g);
+		}
+
+		generator.slot = slot;
+	}
+
 	private void generateTestCases() {
-		iterations = new Stack<>();
+		plan = new IterationPlan(
+			planner,
+			randomSeed,
+			iterationSelector,
+			randomSources,
+			fingerprint,
+			generators,
+			generatorCases,
+			generatorGroups,
+			slotsByGenerator == null ? Collections.emptyMap() : slotsByGenerator,
+			layout,
+			prioritized
+		);
+		prioritized = null;
+		slotsByGenerator = null;
+		layout = null;
+		assignedSlots = new boolean[plan.variables.size()];
+
+		IterationPlan.Row first = plan.claim();
+		if(first == null) {
+			finish();
+			if(!plan.variables.isEmpty())
+				throw new IterationNotSelectedException(iterationSelector);
+		}
+		else {
+			begin(first, newIteration(first));
+		}
+	}
 
-		if(generators.isEmpty())
-			return;
+	private Prefetched claim() {
+		if(prefetchDepth == 0) {
+			IterationPlan.Row row = plan.claim();
+			return row == null ? null : new Prefetched(row, newIteration(row));
+		}
 
-		List<Variable> variables = new ArrayList<>();
-		for(Map.Entry<Generator, Case[]> generator : generators.entrySet()) {
-			variables.add(new Variable(generator.getKey(), generator.getValue()));
+		// Only prefetch generators the test has read, so that unread generators are never expanded.
+		if(readSlots == null)
+			readSlots = new boolean[plan.variables.size()];
+		if(currentIteration != null) {
+			for(int slot = 0; slot < currentIteration.length; slot++)
+				readSlots[slot] |= currentIteration[slot].isGenerated();
 		}
 
-		if(!variables.isEmpty()) {
-			if (caseCompositionMode.equals(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES)) {
-				generatePairwiseTestCases(variables);
-			} else if (caseCompositionMode.equals(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE)) {
-				generateEachSubcaseAtLeastOnceCases(variables);
-			} else {
-				throw new IllegalStateException("Unexpected caseCompositionMode " + caseCompositionMode);
+		// Claim the iteration about to begin as well as the ones after it, so that the helper thread works on the
+		// upcoming iterations while this one executes.
+		while(prefetched.size() <= prefetchDepth) {
+			IterationPlan.Row row = plan.claim();
+			if(row == null)
+				break;
+
+			Prefetched next = new Prefetched(row, newIteration(row));
+			prefetched.add(next);
+			startPrefetching(next.iteration);
+		}
+
+		return prefetched.poll();
+	}
+
+	private void startPrefetching(Iteration[] iteration) {
+		List<Iteration> values = new ArrayList<>(iteration.length);
+		for(int slot = 0; slot < iteration.length; slot++) {
+			if(readSlots[slot])
+				values.add(iteration[slot]);
+		}
+		if(values.isEmpty())
+			return;
+
+		if(prefetcher == null)
+			prefetcher = Executors.newSingleThreadExecutor(PREFETCH_THREADS);
+
+		prefetcher.execute(() -> {
+			PREFETCHING.incrementAndGet();
+			try {
+				for(Iteration value : values) {
+					if(Thread.currentThread().isInterrupted())
+						return;
+
+					try {
+						value.get();
+					}
+					catch(Throwable t) {
+						// The value will be generated, and any failure reported, when the test reads it.
+					}
+				}
+			}
+			finally {
+				PREFETCHING.decrementAndGet();
 			}
+		});
+	}
+
+	private void stopPrefetching() {
+		if(prefetcher != null) {
+			prefetcher.shutdownNow();
+			prefetcher = null;
 		}
+		prefetched.clear();
 	}
 
-	private void generatePairwiseTestCases(List<Variable> variables) {
-		Pairwise<Variable> permuter = new Pairwise<>(variables);
-		Stack<List<Object>> permutations = permuter.generate();
+	private Iteration[] newIteration(IterationPlan.Row row) {
+		Iteration[] wholeIteration = new Iteration[row.subcaseIndices.length];
+		for(int slot = 0; slot < wholeIteration.length; slot++) {
+			wholeIteration[slot] = new Iteration(plan, wholeIteration, slot, row.subcaseIndices[slot], row.index);
+		}
+		return wholeIteration;
+	}
 
-		// Map the permutations back to something a bit more useful.
-		for(List<Object> permutation : permutations) {
-			Map<Generator, Iteration> wholeIteration = new HashMap<>(variables.size());
-			iterations.push(wholeIteration);
+	private void begin(IterationPlan.Row row, Iteration[] iteration) {
+		plan.started(row);
+		iterationIndex = row.index;
+		currentRow = row;
+		currentIteration = iteration;
+	}
 
-			for(int i = 0; i < variables.size(); i++) {
-				@SuppressWarnings("unchecked")
-				Subcase<?> supplier = (Subcase<?>) permutation.get(i);
+	private void finish() {
+		finished = true;
+		iterationIndex = -1;
+		currentRow = null;
+		currentIteration = null;
+		stopPrefetching();
+	}
 
-				Variable sourceVar = variables.get(i);
-				Iteration iteration = new Iteration(supplier);
+	private static final class Prefetched {
+		final IterationPlan.Row row;
+		final Iteration[] iteration;
 
-				wholeIteration.put(sourceVar.g, iteration);
-			}
+		Prefetched(IterationPlan.Row row, Iteration[] iteration) {
+			this.row = row;
+			this.iteration = iteration;
 		}
 	}
 
-	private void generateEachSubcaseAtLeastOnceCases(List<Variable> variables) {
-		int maxSubcases = variables.stream().mapToInt(ArrayList::size).max().orElse(0);
+	// The values of the iteration whose value the current thread is generating, if any.
+	private static final ThreadLocal<Iteration[]> GENERATING = new ThreadLocal<>();
 
-		for(int iteration = 0; iteration < maxSubcases; iteration++) {
-			Map<Generator, Iteration> wholeIteration = new HashMap<>(variables.size());
-			iterations.push(wholeIteration);
+	// The number of threads prefetching values of any test. While it is zero, no generator is being read on a prefetch
+	// thread.
+	private static final AtomicInteger PREFETCHING = new AtomicInteger();
 
-			for(Variable v : variables) {
-				Subcase<?> supplier = v.get(iteration % v.size());
-				wholeIteration.put(v.g, new Iteration(supplier));
-			}
+	private static final AtomicInteger PREFETCH_THREAD_NUMBER = new AtomicInteger();
+
+	private static final ThreadFactory PREFETCH_THREADS = PrefetchThread::new;
+
+	private static final class PrefetchThread extends Thread {
+		PrefetchThread(Runnable r) {
+			super(r, "fuzzy-prefetch-" + PREFETCH_THREAD_NUMBER.incrementAndGet());
+			setDaemon(true);
 		}
 	}
 
@@ -318,7 +941,7 @@ public class Context {
 			message.append("\n");
 			message.append("The available generators were:\n\n");
 
-			for(Generator available : generators.keySet())
+			for(Generator available : generators)
 				reportGeneratorTo("", available, message);
 		}
 
@@ -333,7 +956,7 @@ public class Context {
 		message.append("regardless of other state and variables within your test.\n");
 		message.append("\n");
 
-		if(previousGenerators == null || previousGenerators.isEmpty()) {
+		if(plan == null || plan.variables.isEmpty()) {
 			message.append("The first test iteration did not declare any generators.\n");
 			message.append("\n");
 		}
@@ -341,8 +964,8 @@ public class Context {
 			message.append("The first test iteration declared the following generators:\n");
 			message.append("\n");
 
-			for(Generator prev : previousGenerators.keySet()) {
-				reportGeneratorTo("", prev, message);
+			for(IterationPlan.Variable prev : plan.variables) {
+				reportGeneratorTo("", prev.g, message);
 			}
 		}
 
@@ -353,7 +976,7 @@ public class Context {
 			message.append("The current test iteration declared the following generators.\n");
 			message.append("\n");
 
-			for(Generator curr : generators.keySet()) {
+			for(Generator curr : generators) {
 				reportGeneratorTo("", curr, message);
 			}
 		}
@@ -373,7 +996,7 @@ public class Context {
 		message.append("The context was previously initialized at the following location:\n");
 		message.append("\n");
 
-		for(StackTraceElement e : contextInitTrace)
+		for(StackTraceElement e : contextInitSite.getStackTrace())
 			message.append("  at ").append(e.toString()).append("\n");
 
 		return new IllegalStateException(message.toString());
@@ -386,14 +1009,17 @@ public class Context {
 		message.append("after getting the value of another generator in the same test. All generators for a test ");
 		message.append("must be declared before calling .get() on any of them.\n\n");
 
-		if(lockTrace != null) {
+		if(lockSite != null) {
 			message.append("The context was locked at the following stack trace:\n");
 
-			for(StackTraceElement e : lockTrace)
+			for(StackTraceElement e : lockSite.getStackTrace())
 				message.append("  at ").append(e.toString()).append("\n");
 
 			message.append("\n");
 		}
+		else {
+			message.append("Run the test with -Dfuzzy.diagnostics=true to see where the context was locked.\n\n");
+		}
 
 		return new IllegalStateException(message.toString());
 	}
@@ -405,7 +1031,7 @@ public class Context {
 
 		reportGeneratorTo("New", g, sb);
 
-		Generator existing = generators.keySet().stream().filter(g::equals).findFirst().orElse(null);
+		Generator existing = generators.stream().filter(g::equals).findFirst().orElse(null);
 		if(existing != null) { reportGeneratorTo("Existing", existing, sb); }
 
 		throw new IllegalStateException(sb.toString());
@@ -425,46 +1051,97 @@ public class Context {
 		sb.append("\n");
 	}
 
-	private static class Variable extends ArrayList<Subcase<?>> {
-		private static final long serialVersionUID = 1L;
-		transient final Generator g;
-		Variable(Generator g, Case<?>[] cases) {
-			this.g = g;
-			for(Case<?> c : cases) addAll(c.getSubcases());
+	/**
+	 * The value of a single generator in the current iteration. The value is generated the first time it is read and
+	 * published with a single compare-and-set, so reads never block; if several threads race to generate it, all of
+	 * them observe the value of the thread that published first. Each value is generated from a random stream of its
+	 * own, so a race produces the same value regardless of which thread wins.
+	 */
+	private static class Iteration {
+		private static final Object NOT_GENERATED = new Object();
+		private static final Object NULL = new Object();
+
+		private static final AtomicReferenceFieldUpdater<Iteration, Object> VALUE =
+			AtomicReferenceFieldUpdater.newUpdater(Iteration.class, Object.class, "value");
+
+		private final IterationPlan plan;
+		private final Iteration[] row;
+		private final int slot;
+		private final IterationPlan.Variable variable;
+		private final int subcaseIndex;
+		private final int index;
+		private volatile Object value = NOT_GENERATED;
+
+		public Iteration(IterationPlan plan, Iteration[] row, int slot, int subcaseIndex, int index) {
+			this.plan = plan;
+			this.row = row;
+			this.slot = slot;
+			this.variable = plan.variables.get(slot);
+			this.subcaseIndex = subcaseIndex;
+			this.index = index;
 		}
-	}
 
-	private static class Iteration {
-		private Object iterationValue;
-		private volatile boolean generated;
-		private final Subcase<?> subcase;
+		boolean isGenerated() {
+			return value != NOT_GENERATED;
+		}
 
-		public Iteration(Subcase<?> subcase) {
-			this.subcase = subcase;
+		Object getCurrent() {
+			Object v = value;
+			return v == NOT_GENERATED ? null : unmask(v);
 		}
 
-		synchronized Object getCurrent() {
-			return iterationValue;
+		Object get() {
+			Object v = value;
+			if(v == NOT_GENERATED) {
+				Iteration[] outer = GENERATING.get();
+				GENERATING.set(row);
+				plan.generating.incrementAndGet();
+
+				Object generated;
+				try {
+					generated = generate();
+				}
+				finally {
+					plan.generating.decrementAndGet();
+					GENERATING.set(outer);
+				}
+
+				v = VALUE.compareAndSet(this, NOT_GENERATED, mask(generated)) ? mask(generated) : value;
+			}
+			return unmask(v);
 		}
 
-		synchronized Object get(Random random) {
-			if(!generated) {
-				iterationValue = subcase.generate(random);
-				generated = true;
+		private Object generate() {
+			Subcase<?> subcase = variable.get(subcaseIndex);
+			if(subcase instanceof Subcases.Cacheable) {
+				return plan.cachedValues.get(
+					slot,
+					subcaseIndex,
+					() -> subcase.generate(plan.randomSources.createRandom(plan.cacheableSeed(slot, subcaseIndex)))
+				);
 			}
-			return iterationValue;
+
+			Random random = plan.randomSources.createRandom(plan.generatorSeed(index, slot));
+			if(subcase instanceof Subcases.Dependent)
+				return ((Subcases.Dependent<?, ?>) subcase).generate(random, index);
+
+			return subcase.generate(random);
 		}
 
-		synchronized void describeTo(StringBuilder sb) {
-			if(!generated) {
+		void describeTo(StringBuilder sb) {
+			Object v = value;
+			if(v == NOT_GENERATED) {
 				sb.append("{not generated}");
 			}
 			else {
 				@SuppressWarnings("unchecked")
-				Subcase<Object> castSubcase = (Subcase<Object>) subcase;
-				castSubcase.describeTo(sb, iterationValue);
+				Subcase<Object> castSubcase = (Subcase<Object>) variable.get(subcaseIndex);
+				castSubcase.describeTo(sb, unmask(v));
 			}
 		}
+
+		private static Object mask(Object value) { return value == null ? NULL : value; }
+		private static Object unmask(Object value) { return value == NULL ? null : value; }
 	}
 
 }
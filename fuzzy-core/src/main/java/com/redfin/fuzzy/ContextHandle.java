@@ -0,0 +1,284 @@
+package com.redfin.fuzzy;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An explicit fuzzy context, for running a test without the thread-local state behind the static methods of
+ * {@link Context}. Generators declared through a handle are bound to it, so several tests can be interleaved on the
+ * same thread, and a single test can move between the threads of a pool from one iteration to the next:
+ *
+ * <pre>{@code
+ * ContextHandle context = ContextHandle.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, seed);
+ * try {
+ *   do {
+ *     Generator<String> input = context.generator(Any.string());
+ *     Generator<Integer> count = context.named("count").of(Any.integer());
+ *
+ *     assertEquals(count.get(), subject.repeat(input.get(), count.get()).size());
+ *   } while(context.next());
+ * }
+ * catch(AssertionError | Exception e) {
+ *   throw new AssertionError("Failed with:\n" + context.report(), e);
+ * }
+ * finally {
+ *   context.close();
+ * }
+ * }</pre>
+ *
+ * <p>Apart from their explicit receiver, the methods of a handle behave exactly like the static methods of
+ * {@code Context} of the same name, and a handle generates the same values as the static API does for the same mode
+ * and seed. A handle is not thread-safe: calls to a handle, and to the generators declared through it, must not
+ * overlap, although successive calls may come from different threads as long as they are properly synchronized, for
+ * example by submitting each iteration to an {@code ExecutorService} only after the previous one completed.</p>
+ */
+public final class ContextHandle implements AutoCloseable {
+
+	private final Context context;
+
+	private ContextHandle(Context context) {
+		this.context = context;
+	}
+
+	/**
+	 * Creates a context for running a single test.
+	 *
+	 * @see Context#init(CompositionPlanner, long)
+	 */
+	public static ContextHandle init(CompositionPlanner planner, long randomSeed) {
+		return init(planner, randomSeed, IterationSelector.ALL);
+	}
+
+	/**
+	 * Creates a context for running only some iterations of a single test.
+	 *
+	 * @see Context#init(CompositionPlanner, long, IterationSelector)
+	 */
+	public static ContextHandle init(
+		CompositionPlanner planner,
+		long randomSeed,
+		IterationSelector iterationSelector
+	) {
+		return init(planner, randomSeed, iterationSelector, RandomSource.Factory.SPLITTABLE_RANDOM);
+	}
+
+	/**
+	 * Creates a context for running only some iterations of a single test, drawing random values from sources created
+	 * by the given factory.
+	 *
+	 * @see Context#init(CompositionPlanner, long, IterationSelector, RandomSource.Factory)
+	 */
+	public static ContextHandle init(
+		CompositionPlanner planner,
+		long randomSeed,
+		IterationSelector iterationSelector,
+		RandomSource.Factory randomSources
+	) {
+		return new ContextHandle(Context.create(planner, randomSeed, iterationSelector, randomSources));
+	}
+
+	/**
+	 * Creates a context for running a single test. Equivalent to {@link #init(CompositionPlanner, long)}, which
+	 * replaced it; it remains for code compiled against earlier versions.
+	 */
+	public static ContextHandle init(CaseCompositionMode caseCompositionMode, long randomSeed) {
+		return init((CompositionPlanner) caseCompositionMode, randomSeed);
+	}
+
+	/**
+	 * Creates a context for running only some iterations of a single test. Equivalent to
+	 * {@link #init(CompositionPlanner, long, IterationSelector)}, which replaced it; it remains for code compiled
+	 * against earlier versions.
+	 */
+	public static ContextHandle init(
+		CaseCompositionMode caseCompositionMode,
+		long randomSeed,
+		IterationSelector iterationSelector
+	) {
+		return init((CompositionPlanner) caseCompositionMode, randomSeed, iterationSelector);
+	}
+
+	/**
+	 * Creates a context for running only some iterations of a single test, drawing random values from sources created
+	 * by the given factory. Equivalent to
+	 * {@link #init(CompositionPlanner, long, IterationSelector, RandomSource.Factory)}, which replaced it; it remains
+	 * for code compiled against earlier versions.
+	 */
+	public static ContextHandle init(
+		CaseCompositionMode caseCompositionMode,
+		long randomSeed,
+		IterationSelector iterationSelector,
+		RandomSource.Factory randomSources
+	) {
+		return init((CompositionPlanner) caseCompositionMode, randomSeed, iterationSelector, randomSources);
+	}
+
+	/**
+	 * Creates a context for executing iterations of a test that has already been started by another context. The new
+	 * context has no current iteration until {@link #next()} is called.
+	 *
+	 * @see Context#init(IterationPlan)
+	 */
+	public static ContextHandle init(IterationPlan plan) {
+		return new ContextHandle(Context.create(plan));
+	}
+
+	/**
+	 * Declares a generator of the current iteration.
+	 *
+	 * @see Generator#of(Case[])
+	 */
+	@SafeVarargs
+	public final <X> Generator<X> generator(Case<X>... cases) {
+		return new Generator.GeneratorBuilder(context).of(cases);
+	}
+
+	/**
+	 * Declares a generator of the current iteration that produces one of the given literal values.
+	 *
+	 * @see Generator#of(Object[])
+	 */
+	@SafeVarargs
+	public final <X> Generator<X> generator(X... literals) {
+		return new Generator.GeneratorBuilder(context).of(literals);
+	}
+
+	/**
+	 * Declares a generator of the current iteration composed of the given subcases.
+	 *
+	 * @see Generator#of(Subcase[])
+	 */
+	@SafeVarargs
+	public final <X> Generator<X> generator(Subcase<X>... subcases) {
+		return new Generator.GeneratorBuilder(context).of(subcases);
+	}
+
+	/**
+	 * Declares a generator of the current iteration whose values are generated from a case derived from the current
+	 * value of another generator.
+	 *
+	 * @see Generator#dependingOn(Generator, Function)
+	 */
+	public <S, X> Generator<X> dependingOn(Generator<S> source, Function<? super S, ? extends Case<X>> cases) {
+		return new Generator.GeneratorBuilder(context).dependingOn(source, cases);
+	}
+
+	/**
+	 * Returns a builder for declaring a named generator of the current iteration.
+	 *
+	 * @see Generator#named(String)
+	 */
+	public Generator.GeneratorBuilder named(String name) {
+		return new Generator.GeneratorBuilder(context, FuzzyPreconditions.checkNotNull(name));
+	}
+
+	/**
+	 * Declares a group of generators, which is planned as a single parameter of the test.
+	 *
+	 * @see Context#group(String, Supplier)
+	 */
+	public <T> T group(String name, Supplier<T> declarations) {
+		return context.declareGroup(name, declarations);
+	}
+
+	/**
+	 * Marks the termination of a single iteration of the test, and returns {@code true} if more iterations are
+	 * necessary to execute all test cases.
+	 *
+	 * @see Context#next()
+	 */
+	public boolean next() {
+		return context.advance();
+	}
+
+	/**
+	 * Generates the values of up to {@code iterations} upcoming iterations on a helper thread.
+	 *
+	 * @see Context#prefetch(int)
+	 */
+	public void prefetch(int iterations) {
+		context.setPrefetchDepth(iterations);
+	}
+
+	/**
+	 * Executes the iterations with the given signatures before any other iteration of the test.
+	 *
+	 * @see Context#prioritize(Iterable)
+	 */
+	public void prioritize(Iterable<IterationSignature> signatures) {
+		context.setPrioritized(signatures);
+	}
+
+	/**
+	 * Returns the plan of iterations computed for the test, or {@code null} if it has not been computed yet.
+	 *
+	 * @see Context#plan()
+	 */
+	public IterationPlan plan() {
+		return context.currentPlan();
+	}
+
+	/**
+	 * Returns the index of the current iteration within the test's plan, or {@code -1} if there is none.
+	 *
+	 * @see Context#iterationIndex()
+	 */
+	public int iterationIndex() {
+		return context.currentIterationIndex();
+	}
+
+	/**
+	 * Returns the signature of the current iteration, or {@code null} if there is none.
+	 *
+	 * @see Context#signature()
+	 */
+	public IterationSignature signature() {
+		return context.currentSignature();
+	}
+
+	/**
+	 * Returns how much of the test's input space has been covered so far, or {@code null} if the plan has not been
+	 * computed yet.
+	 *
+	 * @see Context#coverage()
+	 */
+	public Coverage coverage() {
+		return context.currentCoverage();
+	}
+
+	/**
+	 * Returns the values generated so far by the current iteration.
+	 *
+	 * @see Context#valuesForCurrentIteration()
+	 */
+	public Map<Generator, Object> valuesForCurrentIteration() {
+		return context.currentValues();
+	}
+
+	/**
+	 * Produces a human-readable report of the context's status, in American English.
+	 */
+	public String report() {
+		StringBuilder sb = new StringBuilder();
+		reportTo(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Produces a human-readable report of the context's status, in American English.
+	 */
+	public void reportTo(StringBuilder sb) {
+		context.describeTo(sb);
+	}
+
+	/**
+	 * Marks the completion of the test, releasing the helper threads used for {@linkplain #prefetch(int) prefetching}.
+	 * Unlike {@link Context#cleanUp()}, closing a handle is optional when prefetching is disabled.
+	 */
+	@Override
+	public void close() {
+		context.close();
+	}
+
+}
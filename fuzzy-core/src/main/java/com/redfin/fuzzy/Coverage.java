@@ -0,0 +1,67 @@
+package com.redfin.fuzzy;
+
+/**
+ * Describes how much of the input space of a test its executed iterations have covered, measured in pairs of subcases
+ * of different generators (or, for tests with a single generator, in subcases). A test that executes every iteration
+ * of its {@linkplain CaseCompositionMode#PAIRWISE_PERMUTATIONS_OF_SUBCASES pairwise} plan covers all of its pairs.
+ *
+ * @see Context#coverage()
+ */
+public final class Coverage {
+
+	private final int iterations;
+	private final long covered;
+	private final long total;
+	private final boolean pairs;
+	private final int removedIterations;
+
+	/*package*/ Coverage(int iterations, long covered, long total, boolean pairs, int removedIterations) {
+		this.iterations = iterations;
+		this.covered = covered;
+		this.total = total;
+		this.pairs = pairs;
+		this.removedIterations = removedIterations;
+	}
+
+	/**
+	 * Returns the number of iterations that were started.
+	 */
+	public int getIterations() { return iterations; }
+
+	/**
+	 * Returns the number of distinct pairs of subcases that the started iterations used (or, for tests with a single
+	 * generator, the number of distinct subcases).
+	 */
+	public long getCovered() { return covered; }
+
+	/**
+	 * Returns the number of distinct pairs of subcases that the test's generators can produce (or, for tests with a
+	 * single generator, the number of its subcases).
+	 */
+	public long getTotal() { return total; }
+
+	/**
+	 * Returns the number of iterations that the planner removed from the test's plan so far because they would not
+	 * have covered anything new: iterations that exactly duplicated an earlier one and, when the
+	 * {@code fuzzy.removeRedundantIterations} system property is {@code true}, iterations whose pairs of subcases were
+	 * all covered by earlier ones.
+	 */
+	public int getRemovedIterations() { return removedIterations; }
+
+	/**
+	 * Returns the covered fraction of all pairs, from {@code 0} to {@code 1}.
+	 */
+	public double getRatio() { return total == 0 ? 1 : (double) covered / total; }
+
+	@Override
+	public String toString() {
+		return String.format(
+			"%,d of %,d %s (%.1f%%)",
+			covered,
+			total,
+			pairs ? "subcase pairs" : "subcases",
+			getRatio() * 100
+		);
+	}
+
+}
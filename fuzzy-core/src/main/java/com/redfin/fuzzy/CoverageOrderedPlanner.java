@@ -0,0 +1,168 @@
+package com.redfin.fuzzy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Plans the same rows as another planner, reordered greedily so that each row covers as many pairs of subcases that
+ * the rows before it do not cover as possible. A run that stops before the end of the plan, for example when its time
+ * budget is used up, therefore covers as many pairs as it can.
+ *
+ * <p>Reordering needs every row of the plan, so the rows are read all at once. Only the first
+ * {@value #MAX_REORDERED_ROWS} rows are reordered; any rows after them keep their order. Plans with more pairs of
+ * subcases than a bit set can index are not reordered at all.</p>
+ */
+/*package*/ final class CoverageOrderedPlanner implements CompositionPlanner {
+
+	/*package*/ static final int MAX_REORDERED_ROWS = 100_000;
+
+	private final CompositionPlanner planner;
+
+	/*package*/ CoverageOrderedPlanner(CompositionPlanner planner) {
+		this.planner = planner;
+	}
+
+	@Override
+	public Iterator<int[]> plan(int[] subcaseCounts) {
+		Iterator<int[]> rows = planner.plan(subcaseCounts);
+		if(rows == null || Pairs.size(subcaseCounts) > Integer.MAX_VALUE)
+			return rows;
+
+		List<int[]> window = new ArrayList<>();
+		while(window.size() < MAX_REORDERED_ROWS && rows.hasNext()) {
+			int[] row = rows.next();
+			boolean valid = row != null && row.length == subcaseCounts.length;
+			for(int i = 0; valid && i < row.length; i++)
+				valid = row[i] >= 0 && row[i] < subcaseCounts[i];
+
+			if(!valid)
+				throw new IllegalStateException(String.format(
+					"Planner %s returned the row %s for subcase counts %s.",
+					planner,
+					Arrays.toString(row),
+					Arrays.toString(subcaseCounts)
+				));
+
+			window.add(row);
+		}
+
+		Iterator<int[]> reordered = reorder(window, subcaseCounts).iterator();
+		return new Iterator<int[]>() {
+			@Override
+			public boolean hasNext() {
+				return reordered.hasNext() || rows.hasNext();
+			}
+
+			@Override
+			public int[] next() {
+				return reordered.hasNext() ? reordered.next() : rows.next();
+			}
+		};
+	}
+
+	private static List<int[]> reorder(List<int[]> rows, int[] subcaseCounts) {
+		Pairs covered = new Pairs(subcaseCounts);
+
+		// A row never covers more new pairs than it did when its gain was last computed, so a row whose recomputed gain
+		// still ranks first is the best one left; only the rows at the front of the queue are recomputed.
+		PriorityQueue<long[]> queue = new PriorityQueue<>(Math.max(1, rows.size()), (a, b) ->
+			a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1])
+		);
+		for(int index = 0; index < rows.size(); index++)
+			queue.add(new long[] { Long.MAX_VALUE, index });
+
+		List<int[]> ordered = new ArrayList<>(rows.size());
+		while(!queue.isEmpty()) {
+			long[] candidate = queue.poll();
+			int[] row = rows.get((int) candidate[1]);
+			candidate[0] = covered.countNew(row);
+
+			long[] next = queue.peek();
+			if(next == null || queue.comparator().compare(candidate, next) <= 0) {
+				covered.add(row);
+				ordered.add(row);
+			}
+			else {
+				queue.add(candidate);
+			}
+		}
+
+		return ordered;
+	}
+
+	@Override
+	public String toString() {
+		return planner + ", ordered by coverage";
+	}
+
+	// The pairs of subcases covered so far, or the subcases covered so far when there is a single parameter.
+	private static final class Pairs {
+		private final int[] counts;
+		private final long[] offsets;
+		private final BitSet bits = new BitSet();
+
+		Pairs(int[] counts) {
+			if(size(counts) > Integer.MAX_VALUE)
+				throw new IllegalArgumentException("Too many pairs of subcases to track: " + size(counts));
+
+			this.counts = counts;
+			this.offsets = new long[counts.length * counts.length];
+
+			long offset = 0;
+			for(int i = 0; i < counts.length - 1; i++) {
+				for(int j = i + 1; j < counts.length; j++) {
+					offsets[i * counts.length + j] = offset;
+					offset += (long) counts[i] * counts[j];
+				}
+			}
+		}
+
+		// The number of bits needed to track the given subcase counts.
+		static long size(int[] counts) {
+			if(counts.length == 1)
+				return counts[0];
+
+			long size = 0;
+			for(int i = 0; i < counts.length - 1; i++) {
+				for(int j = i + 1; j < counts.length; j++)
+					size += (long) counts[i] * counts[j];
+			}
+			return size;
+		}
+
+		long countNew(int[] row) {
+			if(row.length == 1)
+				return bits.get(row[0]) ? 0 : 1;
+
+			long count = 0;
+			for(int i = 0; i < row.length - 1; i++) {
+				for(int j = i + 1; j < row.length; j++) {
+					if(!bits.get(bit(row, i, j)))
+						count++;
+				}
+			}
+			return count;
+		}
+
+		void add(int[] row) {
+			if(row.length == 1) {
+				bits.set(row[0]);
+				return;
+			}
+
+			for(int i = 0; i < row.length - 1; i++) {
+				for(int j = i + 1; j < row.length; j++)
+					bits.set(bit(row, i, j));
+			}
+		}
+
+		private int bit(int[] row, int i, int j) {
+			return (int) (offsets[i * counts.length + j] + (long) row[i] * counts[j] + row[j]);
+		}
+	}
+
+}
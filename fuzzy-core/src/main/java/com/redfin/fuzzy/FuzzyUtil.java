@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -15,7 +16,7 @@ public class FuzzyUtil {
 
 	@SafeVarargs
 	public static <T> Set<T> union(Set<T>... sets) {
-		Set<T> ret = new HashSet<>();
+		Set<T> ret = new LinkedHashSet<>();
 
 		if(sets != null)
 			for(Set<T> set : sets)
@@ -30,7 +31,7 @@ public class FuzzyUtil {
 		if(elements == null || elements.length == 0)
 			return Collections.emptySet();
 
-		Set<T> ret = new HashSet<>(elements.length);
+		Set<T> ret = new LinkedHashSet<>(elements.length);
 		ret.addAll(Arrays.asList(elements));
 
 		return ret;
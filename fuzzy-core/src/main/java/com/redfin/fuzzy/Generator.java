@@ -3,6 +3,7 @@ package com.redfin.fuzzy;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * The generator is a stand-in for an input value in a test case. It is composed of one or more {@linkplain Case cases}
@@ -38,16 +39,33 @@ public class Generator<T> implements Comparable<Generator<T>> {
 
 	/*package*/ Generator(Context c) { context = c; }
 
+	private static final String UNKNOWN_NAME =
+		"at an unknown location (run with -Dfuzzy.diagnostics=true for more information)";
+
 	private final Context context;
 	private String name = "Unknown";
-	private StackTraceElement[] creationSite = new StackTraceElement[0];
-
+	private StackTraceElement[] creationSite;
+	private boolean defaultName;
+	private boolean nameAdopted;
+	private boolean creationSiteAdopted;
+
+	// Assigned by the context when the generator is registered; indexes the generator's value in each iteration.
+	/*package*/ int slot = -1;
+
+	/**
+	 * Returns the generator's name: the name it was declared with, or else a description of where it was declared.
+	 * Later iterations of a test only capture where a generator was declared when diagnostics are enabled, and otherwise
+	 * take it from the generator declared at the same point in the first iteration; until that generator is known, the
+	 * name describes an unknown location.
+	 */
 	public final String getName() {
-		return name;
+		return name == null ? UNKNOWN_NAME : name;
 	}
 
 	public final List<StackTraceElement> getCreationSite() {
-		return Collections.unmodifiableList(Arrays.asList(creationSite));
+		return creationSite == null
+			? Collections.emptyList()
+			: Collections.unmodifiableList(Arrays.asList(creationSite));
 	}
 
 	public final T get() {
@@ -70,33 +88,125 @@ public class Generator<T> implements Comparable<Generator<T>> {
 	@SafeVarargs
 	public static <X> Generator<X> of(Subcase<X>... subcases) { return new GeneratorBuilder().of(subcases); }
 
+	/**
+	 * Declares a generator whose values are generated from a case derived from the current value of another generator.
+	 *
+	 * @see Cases#dependingOn(Generator, Function)
+	 */
+	public static <S, X> Generator<X> dependingOn(Generator<S> source, Function<? super S, ? extends Case<X>> cases) {
+		return new GeneratorBuilder().dependingOn(source, cases);
+	}
+
+	/*package*/ final boolean hasName() { return name != null; }
+
+	/*package*/ final boolean hasDefaultName() { return defaultName; }
+
+	/*package*/ final boolean hasCreationSite() { return creationSite != null; }
+
+	/**
+	 * Copies the name and creation site of the generator declared at the same point in an earlier iteration, for
+	 * generators whose creation site was not captured.
+	 */
+	/*package*/ final void adoptIdentityOf(Generator<?> previous) {
+		if(name == null) {
+			name = previous.name;
+			nameAdopted = true;
+		}
+		if(creationSite == null) {
+			creationSite = previous.creationSite;
+			creationSiteAdopted = true;
+		}
+	}
+
+	/**
+	 * Reverts {@link #adoptIdentityOf(Generator)}, for generators that turn out not to match the generator they were
+	 * expected to.
+	 */
+	/*package*/ final void forgetAdoptedIdentity() {
+		if(nameAdopted) {
+			name = null;
+			nameAdopted = false;
+		}
+		if(creationSiteAdopted) {
+			creationSite = null;
+			creationSiteAdopted = false;
+		}
+	}
+
+	/*package*/ final void nameUnknown() {
+		if(name == null) name = UNKNOWN_NAME;
+	}
+
+	// Generators whose identity is not known yet are only equal to themselves, and are ordered after named generators.
 	@Override
 	public final int hashCode() {
-		return name.hashCode();
+		return name == null ? System.identityHashCode(this) : name.hashCode();
 	}
 
 	@Override
 	public final boolean equals(Object obj) {
-		return obj == this || (obj instanceof Generator && name.equals(((Generator) obj).name));
+		return obj == this || (obj instanceof Generator && name != null && name.equals(((Generator) obj).name));
 	}
 
 	@Override
 	public final int compareTo(Generator<T> o) {
+		if(name == null || o.name == null) {
+			if(name != null) return -1;
+			if(o.name != null) return 1;
+			return this == o ? 0 : Integer.compare(System.identityHashCode(this), System.identityHashCode(o));
+		}
 		return name.compareTo(o.name);
 	}
 
 	public static class GeneratorBuilder {
+		// The context the generator is registered with, or null for the current thread's context.
+		private final Context context;
 		private final String name;
+		private final boolean defaultName;
 		private final StackTraceElement[] creationSite;
 
-		private GeneratorBuilder(String name) {
+		// Walking the stack is expensive, and the creation site is only used in error messages and to name generators
+		// that weren't given one explicitly. The context only asks for it during a test's first iteration (or when
+		// diagnostics are enabled); later iterations inherit the name and site of the generator declared in the same
+		// position.
+		private GeneratorBuilder(String name) { this(null, name); }
+
+		private GeneratorBuilder() { this((Context) null); }
+
+		/*package*/ GeneratorBuilder(Context context, String name) {
+			this.context = context;
 			this.name = name;
-			this.creationSite = Thread.currentThread().getStackTrace();
+			this.defaultName = false;
+			this.creationSite = shouldCaptureCreationSite(context) ? captureCreationSite() : null;
+		}
+
+		/*package*/ GeneratorBuilder(Context context) {
+			this.context = context;
+			this.defaultName = true;
+			this.creationSite = shouldCaptureCreationSite(context) ? captureCreationSite() : null;
+			this.name = creationSite == null ? null : "at " + creationSite[0].toString();
 		}
 
-		private GeneratorBuilder() {
-			this.creationSite = Thread.currentThread().getStackTrace();
-			this.name = "at " + creationSite[4].toString();
+		private static boolean shouldCaptureCreationSite(Context context) {
+			return context == null ? Context.shouldCaptureCreationSites() : context.capturesCreationSites();
+		}
+
+		private static StackTraceElement[] captureCreationSite() {
+			StackTraceElement[] trace = new Throwable().getStackTrace();
+
+			// Skip our own frames so that the site starts at the code declaring the generator.
+			int first = 0;
+			while(first < trace.length - 1 && isGeneratorFrame(trace[first])) first++;
+
+			return Arrays.copyOfRange(trace, first, trace.length);
+		}
+
+		private static boolean isGeneratorFrame(StackTraceElement frame) {
+			String className = frame.getClassName();
+			return
+				className.equals(Generator.class.getName()) ||
+				className.startsWith(Generator.class.getName() + "$") ||
+				className.equals(ContextHandle.class.getName());
 		}
 
 		@SafeVarargs
@@ -105,10 +215,11 @@ public class Generator<T> implements Comparable<Generator<T>> {
 			FuzzyPreconditions.checkNotEmpty(cases);
 
 			// Build the generator
-			Context c = Context.getUnlocked();
+			Context c = context == null ? Context.getUnlocked() : context.unlocked();
 			Generator<X> g = new Generator<>(c);
 			g.creationSite = creationSite;
 			g.name = name;
+			g.defaultName = defaultName;
 
 			// Register and return
 			c.register(g, cases);
@@ -128,6 +239,13 @@ public class Generator<T> implements Comparable<Generator<T>> {
 			FuzzyPreconditions.checkNotNullAndContainsNoNulls(subcases);
 			return this.of(Cases.of(subcases));
 		}
+
+		public final <S, X> Generator<X> dependingOn(
+			Generator<S> source,
+			Function<? super S, ? extends Case<X>> cases
+		) {
+			return this.of(Cases.dependingOn(source, cases));
+		}
 	}
 
 }
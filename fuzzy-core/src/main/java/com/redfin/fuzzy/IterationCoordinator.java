@@ -0,0 +1,230 @@
+package com.redfin.fuzzy;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.BindException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out the iterations of tests to several processes running them at once, for example the forks of a test run,
+ * so that each iteration is executed by whichever process asks for it next. Unlike {@linkplain
+ * IterationSelector#shard(int, int) shards}, which split a plan up front, coordinated processes keep executing
+ * iterations until the plan is exhausted, so none of them sits idle while another works through expensive iterations.
+ *
+ * <p>Every process {@linkplain #join(int) joins} the coordinator on the same loopback port. The first to do so starts
+ * the coordinator, a small server on a daemon thread, and the others connect to it. Each test then asks for its
+ * iterations through the {@linkplain #selector(String) selector} named after the test; the selectors of the different
+ * processes together claim every iteration of the plan exactly once, provided the processes run the same tests with
+ * the same configuration.</p>
+ *
+ * <p>As with shards, each process only reports the failures of the iterations it executed: a test passes in one
+ * process even if an iteration another process claimed fails there. The process that started the coordinator must
+ * keep running until the others are done; if the coordinator cannot be reached, the remaining iterations are executed
+ * locally, so that iterations may be executed twice but are never skipped.</p>
+ */
+public final class IterationCoordinator implements Closeable {
+
+	private static final String NEXT = "NEXT";
+	private static final String CLAIM = "CLAIM";
+
+	private final ServerSocket server;
+	private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+	private final int port;
+	private Socket socket;
+	private BufferedReader in;
+	private PrintWriter out;
+	private boolean disconnected;
+
+	private IterationCoordinator(ServerSocket server, int port) {
+		this.server = server;
+		this.port = port;
+	}
+
+	/**
+	 * Joins the coordinator listening on the given loopback port, starting it if no process has yet.
+	 *
+	 * @param port the port shared by every coordinated process.
+	 *
+	 * @throws IOException if the port is taken by something other than a coordinator.
+	 */
+	public static IterationCoordinator join(int port) throws IOException {
+		if(port <= 0 || port > 0xFFFF)
+			throw new IllegalArgumentException("Invalid coordinator port " + port + ".");
+
+		ServerSocket server;
+		try {
+			server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		}
+		catch(BindException e) {
+			server = null;
+		}
+
+		IterationCoordinator coordinator = new IterationCoordinator(server, port);
+		if(server != null)
+			coordinator.serve();
+		coordinator.connect();
+		return coordinator;
+	}
+
+	/**
+	 * Returns {@code true} if this process started the coordinator.
+	 */
+	public boolean isCoordinator() {
+		return server != null;
+	}
+
+	/**
+	 * Returns a selector that claims iterations of the named test from the coordinator. The name must identify the
+	 * test in every coordinated process, and each process must use a single selector per test. The selector selects
+	 * the iterations no process has claimed yet, and an iteration it {@linkplain IterationSelector#claim(int) claims}
+	 * is no longer selected by the selector of any other process.
+	 */
+	public IterationSelector selector(String testName) {
+		FuzzyPreconditions.checkNotNull("A test name is required.", testName);
+		if(testName.indexOf('\n') >= 0 || testName.indexOf('\r') >= 0)
+			throw new IllegalArgumentException("Test names cannot contain line breaks.");
+
+		return new IterationSelector() {
+			@Override
+			public int nextSelected(int index) {
+				String response = request(NEXT, index, testName);
+				return response != null ? Integer.parseInt(response) : index;
+			}
+
+			@Override
+			public boolean claim(int index) {
+				String response = request(CLAIM, index, testName);
+				return response == null || Boolean.parseBoolean(response);
+			}
+
+			@Override
+			public String toString() {
+				return "iterations claimed from the coordinator on port " + port;
+			}
+		};
+	}
+
+	/**
+	 * Stops the coordinator, if this process started it, and disconnects from it.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		disconnected = true;
+		try {
+			if(socket != null)
+				socket.close();
+		}
+		finally {
+			if(server != null) {
+				server.close();
+				for(Socket client : clients)
+					client.close();
+			}
+		}
+	}
+
+	// Returns the coordinator's response, or null once it cannot be reached, in which case every iteration is selected.
+	private synchronized String request(String command, int index, String testName) {
+		if(!disconnected) {
+			try {
+				out.println(command + " " + index + " " + testName);
+				out.flush();
+
+				String response = in.readLine();
+				if(response != null)
+					return response;
+			}
+			catch(IOException e) {
+				// Fall through and run the remaining iterations locally.
+			}
+
+			disconnected = true;
+		}
+
+		return null;
+	}
+
+	private void connect() throws IOException {
+		socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+		out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+	}
+
+	private void serve() {
+		Map<String, BitSet> claimedIndices = new ConcurrentHashMap<>();
+
+		Thread acceptor = new Thread(() -> {
+			while(!server.isClosed()) {
+				Socket client;
+				try {
+					client = server.accept();
+				}
+				catch(IOException e) {
+					return;
+				}
+
+				clients.add(client);
+				Thread handler = new Thread(() -> {
+					handle(client, claimedIndices);
+					clients.remove(client);
+				}, "fuzzy-coordinator-" + port + "-client");
+				handler.setDaemon(true);
+				handler.start();
+			}
+		}, "fuzzy-coordinator-" + port);
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	private static void handle(Socket client, Map<String, BitSet> claimedIndices) {
+		try(
+			Socket c = client;
+			BufferedReader in = new BufferedReader(new InputStreamReader(c.getInputStream(), StandardCharsets.UTF_8));
+			PrintWriter out = new PrintWriter(new OutputStreamWriter(c.getOutputStream(), StandardCharsets.UTF_8))
+		) {
+			String request;
+			while((request = in.readLine()) != null) {
+				// NEXT <index> <test name>: returns the first index of the test that is not less than index and that
+				// no process has claimed. CLAIM <index> <test name>: claims the index, and returns whether it was
+				// unclaimed.
+				String[] parts = request.split(" ", 3);
+				if(parts.length != 3 || !(parts[0].equals(NEXT) || parts[0].equals(CLAIM)))
+					return;
+
+				int index = Integer.parseInt(parts[1]);
+				if(index < 0)
+					return;
+
+				BitSet claimed = claimedIndices.computeIfAbsent(parts[2], name -> new BitSet());
+				String response;
+				synchronized(claimed) {
+					if(parts[0].equals(NEXT)) {
+						response = Integer.toString(claimed.nextClearBit(index));
+					}
+					else {
+						response = Boolean.toString(!claimed.get(index));
+						claimed.set(index);
+					}
+				}
+
+				out.println(response);
+				out.flush();
+			}
+		}
+		catch(IOException | NumberFormatException e) {
+			// The client went away or does not speak our protocol; either way, there is nothing more to do.
+		}
+	}
+
+}
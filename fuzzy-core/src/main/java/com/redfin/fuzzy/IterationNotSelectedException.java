@@ -0,0 +1,16 @@
+package com.redfin.fuzzy;
+
+/**
+ * Thrown by {@link Generator#get()} during the first iteration of a test when the test's
+ * {@linkplain IterationSelector iteration selector} does not select any iteration of its plan. The test has nothing to
+ * execute; test runners should treat it as having run zero iterations rather than as a failure.
+ */
+public class IterationNotSelectedException extends IllegalStateException {
+
+	private static final long serialVersionUID = 1L;
+
+	/*package*/ IterationNotSelectedException(IterationSelector selector) {
+		super("None of the iterations of this test are selected by " + selector + ".");
+	}
+
+}
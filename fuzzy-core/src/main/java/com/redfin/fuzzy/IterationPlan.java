@@ -0,0 +1,534 @@
+package com.redfin.fuzzy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The sequence of iterations the fuzzy engine has planned for a single test.
+ *
+ * <p>A plan is created by the {@link Context} executing a test's first iteration, at the moment that iteration first
+ * reads the value of a generator. From then on, any number of contexts can share the plan: each of them claims the
+ * next unexecuted iteration when {@link Context#next()} is called, so that every iteration is executed exactly once,
+ * in plan order. Iterations that match a {@linkplain Context#prioritize(Iterable) prioritized signature} are executed
+ * before all others, but keep their index, and therefore their values. Use {@link Context#plan()} to obtain the plan
+ * of the current test, and {@link Context#init(IterationPlan)} to execute some of its iterations on another thread.
+ * </p>
+ * <p>Every generator draws from its own random stream, seeded from the test's random seed, the iteration's index
+ * and the generator's slot. The values generated for an iteration therefore do not depend on the thread that executes
+ * it, on the order in which the iterations or their generators are read, or on which earlier iterations ran.
+ * {@linkplain Subcases#cacheable(Subcase) Cacheable} subcases are the exception: their values are seeded without the
+ * iteration's index, and are shared by every iteration that uses them.
+ * </p>
+ * <p>The generators declared within a {@linkplain Context#group(String, java.util.function.Supplier) group} are
+ * planned among themselves first. The group then acts as a single parameter of the enclosing plan, whose values are
+ * the iterations of the group's own plan, and which the planner combines with the enclosing plan's other generators
+ * and groups like any other parameter.
+ * </p>
+ */
+public final class IterationPlan {
+
+	/*package*/ final CompositionPlanner planner;
+	/*package*/ final long randomSeed;
+	/*package*/ final IterationSelector iterationSelector;
+	/*package*/ final RandomSource.Factory randomSources;
+	/*package*/ final long fingerprint;
+	/*package*/ final List<Variable> variables;
+	/*package*/ final Map<Generator, Integer> slotsByGenerator;
+	/*package*/ final ValueCache cachedValues = new ValueCache();
+
+	// The number of values of the plan being generated, on any thread. While it is zero, no subcase can be reading a
+	// generator of the plan, so generators are read from their context's current iteration without further checks.
+	/*package*/ final AtomicInteger generating = new AtomicInteger();
+
+	private final int[] subcaseCounts;
+	private final PlanCache.Rows rows;
+	private int nextIndex;
+	private int started;
+
+	// Prioritized rows are found by reading ahead of nextIndex; the rows read over are kept so that they still execute
+	// in order afterwards.
+	private List<IterationSignature> prioritized;
+	private final Queue<Row> prioritizedRows = new ArrayDeque<>();
+	private final Set<Integer> prioritizedIndices = new HashSet<>();
+	private final Queue<int[]> lookahead = new ArrayDeque<>();
+
+	// Identifies each pair of subcases (or each subcase, for a single generator) by a bit, to track coverage.
+	private final long[] pairOffsets;
+	private final long totalPairs;
+	private final BitSet coveredPairs = new BitSet();
+
+	/*package*/ IterationPlan(
+		CompositionPlanner planner,
+		long randomSeed,
+		IterationSelector iterationSelector,
+		RandomSource.Factory randomSources,
+		long fingerprint,
+		List<Generator> generators,
+		List<Case[]> generatorCases,
+		List<Long> generatorGroups,
+		Map<Generator, Integer> slotsByGenerator,
+		Group layout,
+		List<IterationSignature> prioritized
+	) {
+		this.planner = planner;
+		this.randomSeed = randomSeed;
+		this.iterationSelector = iterationSelector;
+		this.randomSources = randomSources;
+		this.fingerprint = fingerprint;
+		this.slotsByGenerator = slotsByGenerator;
+		this.prioritized = prioritized;
+
+		List<Variable> variables = new ArrayList<>(generators.size());
+		for(int slot = 0; slot < generators.size(); slot++) {
+			variables.add(new Variable(generators.get(slot), generatorCases.get(slot), generatorGroups.get(slot)));
+		}
+		this.variables = Collections.unmodifiableList(variables);
+
+		int[] subcaseCounts = variables.stream().mapToInt(Variable::size).toArray();
+		this.subcaseCounts = subcaseCounts;
+
+		int width = subcaseCounts.length;
+		pairOffsets = new long[width * width];
+		long pairs = 0;
+		if(width == 1) {
+			pairs = subcaseCounts[0];
+		}
+		else {
+			for(int i = 0; i < width - 1; i++) {
+				for(int j = i + 1; j < width; j++) {
+					pairOffsets[i * width + j] = pairs;
+					pairs += (long) subcaseCounts[i] * subcaseCounts[j];
+				}
+			}
+		}
+		totalPairs = pairs;
+
+		rows = layout == null ? plan(subcaseCounts) : plan(layout);
+	}
+
+	private PlanCache.Rows plan(int[] subcaseCounts) {
+		if(subcaseCounts.length == 0)
+			return PlanCache.Rows.of(Collections.emptyIterator());
+
+		Iterator<int[]> rows = planner.plan(subcaseCounts);
+		if(rows == null)
+			throw new IllegalStateException("Planner " + planner + " returned no rows.");
+
+		return rows instanceof PlanCache.Rows ? (PlanCache.Rows) rows : PlanCache.Rows.of(checked(rows, subcaseCounts));
+	}
+
+	// Rows from other planners are checked as they are read, so that a faulty planner fails with a helpful message.
+	private Iterator<int[]> checked(Iterator<int[]> rows, int[] subcaseCounts) {
+		return new Iterator<int[]>() {
+			@Override
+			public boolean hasNext() {
+				return rows.hasNext();
+			}
+
+			@Override
+			public int[] next() {
+				int[] row = rows.next();
+				boolean valid = row != null && row.length == subcaseCounts.length;
+				for(int i = 0; valid && i < row.length; i++)
+					valid = row[i] >= 0 && row[i] < subcaseCounts[i];
+
+				if(!valid)
+					throw new IllegalStateException(String.format(
+						"Planner %s returned the row %s for subcase counts %s.",
+						planner,
+						Arrays.toString(row),
+						Arrays.toString(subcaseCounts)
+					));
+
+				return row;
+			}
+		};
+	}
+
+	/**
+	 * Plans a test whose first iteration declared groups. Unlike a flat plan, the plan of a group is computed up front,
+	 * since it is cycled through as many times as the plans it is combined with require.
+	 */
+	private PlanCache.Rows plan(Group layout) {
+		int[] removed = new int[1];
+		Block block = block(layout, removed);
+
+		List<int[]> rows = new ArrayList<>(block.rows.size());
+		for(int[] blockRow : block.rows) {
+			int[] row = new int[variables.size()];
+			for(int i = 0; i < block.slots.length; i++)
+				row[block.slots[i]] = blockRow[i];
+			rows.add(row);
+		}
+
+		return PlanCache.Rows.of(rows.iterator(), removed[0]);
+	}
+
+	/**
+	 * Plans the generators of a group. Each nested group is planned first, and then acts as a single parameter whose
+	 * values are the indices of its rows; the group's own generators and these parameters are then planned together,
+	 * so that their values are combined as the planner combines those of any other generators.
+	 */
+	private Block block(Group group, int[] removed) {
+		// Each parameter is either the slot of a generator, or the block of a nested group.
+		List<Object> parameters = new ArrayList<>(group.members.size());
+		for(Object member : group.members) {
+			if(member instanceof Group) {
+				Block nested = block((Group) member, removed);
+				if(!nested.rows.isEmpty())
+					parameters.add(nested);
+			}
+			else {
+				parameters.add(member);
+			}
+		}
+
+		if(parameters.size() == 1 && parameters.get(0) instanceof Block)
+			return (Block) parameters.get(0);
+
+		int[] counts = new int[parameters.size()];
+		int width = 0;
+		for(int i = 0; i < counts.length; i++) {
+			Object parameter = parameters.get(i);
+			if(parameter instanceof Block) {
+				counts[i] = ((Block) parameter).rows.size();
+				width += ((Block) parameter).slots.length;
+			}
+			else {
+				counts[i] = variables.get((Integer) parameter).size();
+				width++;
+			}
+		}
+
+		int[] allSlots = new int[width];
+		int offset = 0;
+		for(Object parameter : parameters) {
+			if(parameter instanceof Block) {
+				int[] slots = ((Block) parameter).slots;
+				System.arraycopy(slots, 0, allSlots, offset, slots.length);
+				offset += slots.length;
+			}
+			else {
+				allSlots[offset++] = (Integer) parameter;
+			}
+		}
+
+		PlanCache.Rows plan = plan(counts);
+		List<int[]> rows = new ArrayList<>();
+		while(plan.hasNext()) {
+			int[] planned = plan.next();
+			int[] row = new int[width];
+			offset = 0;
+			for(int i = 0; i < planned.length; i++) {
+				Object parameter = parameters.get(i);
+				if(parameter instanceof Block) {
+					Block nested = (Block) parameter;
+					System.arraycopy(nested.rows.get(planned[i]), 0, row, offset, nested.slots.length);
+					offset += nested.slots.length;
+				}
+				else {
+					row[offset++] = planned[i];
+				}
+			}
+			rows.add(row);
+		}
+		removed[0] += plan.removedCount();
+
+		return new Block(allSlots, rows);
+	}
+
+	/**
+	 * Removes and returns the next selected iteration of the plan, or {@code null} if every selected iteration has been
+	 * claimed. Iterations that are not selected are skipped over without being executed.
+	 */
+	/*package*/ synchronized Row claim() {
+		if(prioritized != null) {
+			findPrioritizedRows(prioritized);
+			prioritized = null;
+		}
+
+		Row row;
+		while((row = prioritizedRows.poll()) != null) {
+			if(iterationSelector.claim(row.index))
+				return row;
+		}
+
+		return claimInOrder();
+	}
+
+	/**
+	 * Records that a claimed iteration has started executing. Iterations can be claimed ahead of time, so only started
+	 * iterations count towards the plan's {@linkplain #coverage() coverage}.
+	 */
+	/*package*/ synchronized void started(Row row) {
+		recordCoverage(row.subcaseIndices);
+	}
+
+	private Row claimInOrder() {
+		while(true) {
+			int selected = iterationSelector.nextSelected(nextIndex);
+			if(selected < 0)
+				return null;
+
+			for(; nextIndex < selected; nextIndex++) {
+				if(nextRow() == null)
+					return null;
+			}
+
+			int[] row = nextRow();
+			if(row == null)
+				return null;
+
+			int index = nextIndex++;
+			if(!prioritizedIndices.contains(index) && iterationSelector.claim(index))
+				return new Row(index, row);
+		}
+	}
+
+	private int[] nextRow() {
+		if(!lookahead.isEmpty())
+			return lookahead.poll();
+
+		return rows.hasNext() ? rows.next() : null;
+	}
+
+	private void findPrioritizedRows(List<IterationSignature> signatures) {
+		List<IterationSignature> remaining = new ArrayList<>();
+		for(IterationSignature signature : signatures) {
+			if(signature.getFingerprint() == fingerprint && !remaining.contains(signature))
+				remaining.add(signature);
+		}
+
+		// A signature whose row is not selected is matched all the same, so that the search can stop early.
+		Row[] found = new Row[remaining.size()];
+		boolean[] matched = new boolean[found.length];
+		int matchedCount = 0;
+		for(int index = nextIndex; matchedCount < found.length && lookahead.size() < MAX_LOOKAHEAD; index++) {
+			if(!rows.hasNext())
+				break;
+
+			int[] row = rows.next();
+			lookahead.add(row);
+
+			for(int i = 0; i < found.length; i++) {
+				if(!matched[i] && remaining.get(i).matches(fingerprint, row)) {
+					if(iterationSelector.nextSelected(index) == index) {
+						found[i] = new Row(index, row);
+						prioritizedIndices.add(index);
+					}
+					matched[i] = true;
+					matchedCount++;
+					break;
+				}
+			}
+		}
+
+		// Execute the prioritized rows in the order of the signatures.
+		for(Row row : found) {
+			if(row != null)
+				prioritizedRows.add(row);
+		}
+	}
+
+	/**
+	 * Returns the signature of the given iteration of this plan.
+	 */
+	/*package*/ IterationSignature signature(Row row) {
+		return new IterationSignature(fingerprint, row.subcaseIndices);
+	}
+
+	/**
+	 * Returns how much of the input space the iterations started so far cover.
+	 */
+	/*package*/ synchronized Coverage coverage() {
+		return new Coverage(
+			started,
+			coveredPairs.cardinality(),
+			totalPairs,
+			subcaseCounts.length > 1,
+			rows.removedCount()
+		);
+	}
+
+	private void recordCoverage(int[] row) {
+		started++;
+
+		int width = row.length;
+		if(width == 1) {
+			coveredPairs.set(row[0]);
+			return;
+		}
+
+		// Coverage is an estimate, so plans too large to index with a BitSet simply stop tracking it.
+		if(totalPairs > Integer.MAX_VALUE)
+			return;
+
+		for(int i = 0; i < width - 1; i++) {
+			for(int j = i + 1; j < width; j++) {
+				coveredPairs.set((int) (pairOffsets[i * width + j] + (long) row[i] * subcaseCounts[j] + row[j]));
+			}
+		}
+	}
+
+	/**
+	 * Derives the seed for the random number generator used by a single generator in a single iteration, so that the
+	 * value of each generator depends only on the test's seed, the iteration's index and the generator's slot.
+	 */
+	/*package*/ long generatorSeed(int index, int slot) {
+		return mix(mix(randomSeed + (index + 1) * GOLDEN_GAMMA) + (slot + 1) * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Derives the seed for the random number generator used by a {@linkplain Subcases#cacheable(Subcase) cacheable}
+	 * subcase, whose value depends only on the test's seed, the generator's slot and the subcase's index, so that every
+	 * iteration using the subcase can share it.
+	 */
+	/*package*/ long cacheableSeed(int slot, int subcaseIndex) {
+		return mix(mix(randomSeed - (slot + 1) * GOLDEN_GAMMA) + (subcaseIndex + 1) * GOLDEN_GAMMA);
+	}
+
+	// Plans are only searched this far for prioritized rows, which bounds the rows held in memory to the same order as
+	// the largest cached plans.
+	private static final int MAX_LOOKAHEAD = 100_000;
+
+	/*package*/ static final long EMPTY_FINGERPRINT = 0xCBF29CE484222325L;
+
+	/**
+	 * Adds a generator to an order-sensitive fingerprint of the generators declared by an iteration. Generators are
+	 * identified by their names when they have been explicitly named, and otherwise only by their positions; in both
+	 * cases, the number of cases they were declared with is also included.
+	 */
+	/*package*/ static long fingerprint(long fingerprint, Generator<?> generator, int caseCount) {
+		int name = generator.hasName() && !generator.hasDefaultName() ? generator.getName().hashCode() : 0;
+		return mix(mix(fingerprint + name) + caseCount);
+	}
+
+	/**
+	 * Adds the start or the end of a {@linkplain Context#group group} to a fingerprint, so that declaring the same
+	 * generators in different groups produces a different fingerprint.
+	 */
+	/*package*/ static long fingerprintGroup(long fingerprint, String name, boolean start) {
+		return start ? mix(mix(fingerprint + name.hashCode()) + GROUP_START) : mix(fingerprint + GROUP_END);
+	}
+
+	private static final long GROUP_START = 0x67726F7570L;
+	private static final long GROUP_END = ~GROUP_START;
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	// SplitMix64's finalizer, so that neighboring indices and slots produce unrelated seeds.
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * The generators declared by a call to {@link Context#group}, in the order they were declared: the slots of
+	 * individual generators, and nested groups.
+	 */
+	/*package*/ static final class Group {
+		/*package*/ final List<Object> members = new ArrayList<>();
+	}
+
+	// The rows planned for a group, holding the subcase indices of the given slots.
+	private static final class Block {
+		final int[] slots;
+		final List<int[]> rows;
+
+		Block(int[] slots, List<int[]> rows) {
+			this.slots = slots;
+			this.rows = rows;
+		}
+	}
+
+	/*package*/ static class Row {
+		/*package*/ final int index;
+		/*package*/ final int[] subcaseIndices;
+
+		private Row(int index, int[] subcaseIndices) {
+			this.index = index;
+			this.subcaseIndices = subcaseIndices;
+		}
+	}
+
+	/**
+	 * The cases of a single generator. The plan only needs the number of their subcases, so the subcases themselves are
+	 * expanded the first time the generator is read, and never for generators that the test does not read.
+	 */
+	/*package*/ static class Variable {
+		/*package*/ final Generator g;
+		// Identifies the groups the generator was declared in.
+		/*package*/ final long group;
+		private final Case<?>[] cases;
+		private final int size;
+		private volatile List<Subcase<?>> subcases;
+
+		Variable(Generator g, Case<?>[] cases, long group) {
+			this.g = g;
+			this.group = group;
+			this.cases = cases;
+
+			int size = 0;
+			for(Case<?> c : cases) size = Math.addExact(size, c.getSubcaseCount());
+			this.size = size;
+		}
+
+		/*package*/ int size() { return size; }
+
+		/**
+		 * Returns {@code true} if the given cases, declared for this variable's generator by a later iteration, have
+		 * the same types as those of the first iteration. Comparing the cases themselves would require expanding them.
+		 */
+		/*package*/ boolean declaredLike(Case<?>[] cases) {
+			if(cases.length != this.cases.length)
+				return false;
+
+			for(int i = 0; i < cases.length; i++) {
+				if(cases[i].getClass() != this.cases[i].getClass())
+					return false;
+			}
+			return true;
+		}
+
+		/*package*/ Subcase<?> get(int index) {
+			List<Subcase<?>> subcases = this.subcases;
+			if(subcases == null) {
+				synchronized(this) {
+					subcases = this.subcases;
+					if(subcases == null)
+						this.subcases = subcases = expand();
+				}
+			}
+			return subcases.get(index);
+		}
+
+		private List<Subcase<?>> expand() {
+			List<Subcase<?>> subcases = new ArrayList<>(size);
+			for(Case<?> c : cases) {
+				Set<? extends Subcase<?>> expanded = c.getSubcases();
+				if(expanded.size() != c.getSubcaseCount()) {
+					throw new IllegalStateException(String.format(
+						"Case of type %s reported %d subcases, but generated %d.",
+						c.getClass().getName(),
+						c.getSubcaseCount(),
+						expanded.size()
+					));
+				}
+				subcases.addAll(expanded);
+			}
+			return subcases;
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+package com.redfin.fuzzy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Chooses which iterations of a test's {@linkplain IterationPlan plan} are executed. Because the values generated for
+ * an iteration depend only on the test's random seed and the iteration's index, a selected iteration sees exactly the
+ * values it would have seen in a run of the whole plan; this makes it possible, for example, to reproduce a failure in
+ * iteration 812 without executing the 812 iterations that precede it.
+ *
+ * <p>Iterations that are not selected are never executed. They are still computed, however, since the composition of
+ * each iteration depends on the iterations before it; computing them is cheap compared to executing the test.</p>
+ *
+ * @see Context#init(CompositionPlanner, long, IterationSelector)
+ */
+@FunctionalInterface
+public interface IterationSelector {
+
+	/**
+	 * Selects every iteration of the plan.
+	 */
+	IterationSelector ALL = index -> index;
+
+	/**
+	 * Returns the smallest selected iteration index that is greater than or equal to {@code index}, or {@code -1} if
+	 * no such iteration is selected.
+	 */
+	int nextSelected(int index);
+
+	/**
+	 * Called when an iteration this selector selects is about to be executed, and returns {@code false} if it must be
+	 * skipped after all. {@link #nextSelected(int)} only looks for selected iterations, and the plan can ask it about
+	 * iterations it then leaves for later; selectors whose selection changes as iterations are executed, such as those
+	 * of an {@linkplain IterationCoordinator coordinator}, take the iteration here. By default, every selected
+	 * iteration is executed.
+	 */
+	default boolean claim(int index) {
+		return true;
+	}
+
+	/**
+	 * Returns a selector that selects only the iterations selected by both this selector and {@code other}.
+	 */
+	default IterationSelector and(IterationSelector other) {
+		FuzzyPreconditions.checkNotNull("An iteration selector is required.", other);
+
+		IterationSelector self = this;
+		return new IterationSelector() {
+			@Override
+			public int nextSelected(int index) {
+				int candidate = self.nextSelected(index);
+				while(candidate >= 0) {
+					int otherCandidate = other.nextSelected(candidate);
+					if(otherCandidate == candidate || otherCandidate < 0)
+						return otherCandidate;
+
+					candidate = self.nextSelected(otherCandidate);
+				}
+				return -1;
+			}
+
+			@Override
+			public boolean claim(int index) {
+				return self.claim(index) && other.claim(index);
+			}
+
+			@Override
+			public String toString() {
+				return self + " and " + other;
+			}
+		};
+	}
+
+	/**
+	 * Selects every {@code shardCount}th iteration of the plan, starting at iteration {@code shardIndex}. The shards
+	 * {@code 0} to {@code shardCount - 1} of a plan together select every one of its iterations exactly once, so a
+	 * large plan can be split between several processes that each execute one shard.
+	 *
+	 * @param shardIndex the index of the shard, from {@code 0} to {@code shardCount - 1}.
+	 * @param shardCount the total number of shards. Cannot be less than or equal to zero.
+	 */
+	static IterationSelector shard(int shardIndex, int shardCount) {
+		if(shardCount <= 0)
+			throw new IllegalArgumentException("The shard count must be at least one.");
+		if(shardIndex < 0 || shardIndex >= shardCount)
+			throw new IllegalArgumentException(
+				"The shard index must be between 0 and " + (shardCount - 1) + ", but was " + shardIndex + "."
+			);
+
+		return new IterationSelector() {
+			@Override
+			public int nextSelected(int index) {
+				int remainder = index % shardCount;
+				long next = (long)index - remainder + shardIndex + (remainder > shardIndex ? shardCount : 0);
+				return next > Integer.MAX_VALUE ? -1 : (int)next;
+			}
+
+			@Override
+			public String toString() {
+				return "shard " + shardIndex + " of " + shardCount;
+			}
+		};
+	}
+
+	/**
+	 * Selects exactly the iterations with the given indices.
+	 */
+	static IterationSelector of(int... indices) {
+		FuzzyPreconditions.checkNotNull("Iteration indices are required.", indices);
+
+		int[] sorted = indices.clone();
+		Arrays.sort(sorted);
+		if(sorted.length > 0 && sorted[0] < 0)
+			throw new IllegalArgumentException("Iteration indices cannot be negative.");
+
+		return new IterationSelector() {
+			@Override
+			public int nextSelected(int index) {
+				int i = Arrays.binarySearch(sorted, index);
+				if(i < 0)
+					i = -i - 1;
+				return i < sorted.length ? sorted[i] : -1;
+			}
+
+			@Override
+			public String toString() {
+				return "iterations " + Arrays.toString(sorted);
+			}
+		};
+	}
+
+	/**
+	 * Parses a comma-separated list of iteration indices and inclusive ranges of indices, such as {@code "812"} or
+	 * {@code "3,10-20"}. Ranges are kept as ranges, so even {@code "0-2147483647"} takes no more memory than a single
+	 * index.
+	 *
+	 * @throws IllegalArgumentException if the specification is not well-formed.
+	 */
+	static IterationSelector parse(String specification) {
+		FuzzyPreconditions.checkNotNull("An iteration specification is required.", specification);
+
+		List<int[]> ranges = new ArrayList<>();
+		for(String part : specification.split(",")) {
+			part = part.trim();
+			if(part.isEmpty())
+				continue;
+
+			int from;
+			int to;
+			try {
+				int dash = part.indexOf('-', 1);
+				if(dash < 0) {
+					from = to = Integer.parseInt(part);
+				}
+				else {
+					from = Integer.parseInt(part.substring(0, dash).trim());
+					to = Integer.parseInt(part.substring(dash + 1).trim());
+				}
+			}
+			catch(NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid iteration specification \"" + specification + "\".", e);
+			}
+
+			if(from < 0)
+				throw new IllegalArgumentException(
+					"Invalid iteration range \"" + part + "\": iteration indices cannot be negative."
+				);
+			if(to < from)
+				throw new IllegalArgumentException(
+					"Invalid iteration range \"" + part + "\": it ends at " + to + ", before its start at " + from + "."
+				);
+
+			ranges.add(new int[] { from, to });
+		}
+
+		if(ranges.isEmpty())
+			throw new IllegalArgumentException("Invalid iteration specification \"" + specification + "\".");
+
+		// Merge overlapping and adjacent ranges, so that the selected indices are the disjoint, sorted ranges
+		// [starts[i], ends[i]].
+		ranges.sort(Comparator.comparingInt(range -> range[0]));
+		int[] starts = new int[ranges.size()];
+		int[] ends = new int[ranges.size()];
+		int count = 0;
+		for(int[] range : ranges) {
+			if(count > 0 && (long)range[0] <= (long)ends[count - 1] + 1) {
+				ends[count - 1] = Math.max(ends[count - 1], range[1]);
+			}
+			else {
+				starts[count] = range[0];
+				ends[count] = range[1];
+				count++;
+			}
+		}
+
+		int[] rangeStarts = Arrays.copyOf(starts, count);
+		int[] rangeEnds = Arrays.copyOf(ends, count);
+		return new IterationSelector() {
+			@Override
+			public int nextSelected(int index) {
+				// The first range that ends at or after the index either contains the index or starts after it.
+				int i = Arrays.binarySearch(rangeEnds, index);
+				if(i < 0)
+					i = -i - 1;
+				if(i >= rangeEnds.length)
+					return -1;
+				return Math.max(index, rangeStarts[i]);
+			}
+
+			@Override
+			public String toString() {
+				StringBuilder sb = new StringBuilder("iterations ");
+				for(int i = 0; i < rangeStarts.length; i++) {
+					sb.append(i == 0 ? "" : ",").append(rangeStarts[i]);
+					if(rangeEnds[i] != rangeStarts[i])
+						sb.append('-').append(rangeEnds[i]);
+				}
+				return sb.toString();
+			}
+		};
+	}
+
+}
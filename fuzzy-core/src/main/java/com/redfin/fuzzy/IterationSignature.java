@@ -0,0 +1,92 @@
+package com.redfin.fuzzy;
+
+import java.util.Arrays;
+
+/**
+ * Identifies the combination of subcases that an iteration of a test used, independently of the iteration's position
+ * within the test's plan. A signature consists of a fingerprint of the test's generators, which covers their explicit
+ * names and number of cases, and of the index of the subcase that each generator used.
+ *
+ * <p>Signatures are typically recorded when an iteration fails, so that a later run of the same test can execute the
+ * same combination first; see {@link Context#prioritize(Iterable)}. Their string form is stable across JVMs:</p>
+ *
+ * <pre>{@code
+ * IterationSignature.parse(signature.toString()).equals(signature) // true
+ * }</pre>
+ */
+public final class IterationSignature {
+
+	private final long fingerprint;
+	private final int[] subcaseIndices;
+
+	/*package*/ IterationSignature(long fingerprint, int[] subcaseIndices) {
+		this.fingerprint = fingerprint;
+		this.subcaseIndices = subcaseIndices.clone();
+	}
+
+	/*package*/ long getFingerprint() { return fingerprint; }
+
+	/*package*/ boolean matches(long fingerprint, int[] subcaseIndices) {
+		return this.fingerprint == fingerprint && Arrays.equals(this.subcaseIndices, subcaseIndices);
+	}
+
+	/**
+	 * Returns whether this signature and {@code other} were recorded by tests that declared the same generators, that
+	 * is, whether they identify iterations of the same plan.
+	 */
+	public boolean hasSameGeneratorsAs(IterationSignature other) {
+		FuzzyPreconditions.checkNotNull(other);
+		return fingerprint == other.fingerprint && subcaseIndices.length == other.subcaseIndices.length;
+	}
+
+	/**
+	 * Parses the string form of a signature, as returned by {@link #toString()}.
+	 *
+	 * @throws IllegalArgumentException if {@code signature} is not the string form of a signature.
+	 */
+	public static IterationSignature parse(String signature) {
+		FuzzyPreconditions.checkNotNull(signature);
+
+		String[] parts = signature.trim().split(":", -1);
+		if(parts.length != 2)
+			throw new IllegalArgumentException("Invalid iteration signature \"" + signature + "\".");
+
+		try {
+			long fingerprint = Long.parseUnsignedLong(parts[0], 16);
+
+			String[] indices = parts[1].isEmpty() ? new String[0] : parts[1].split(",", -1);
+			int[] subcaseIndices = new int[indices.length];
+			for(int i = 0; i < indices.length; i++) {
+				subcaseIndices[i] = Integer.parseInt(indices[i]);
+				if(subcaseIndices[i] < 0)
+					throw new IllegalArgumentException("Invalid iteration signature \"" + signature + "\".");
+			}
+
+			return new IterationSignature(fingerprint, subcaseIndices);
+		}
+		catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid iteration signature \"" + signature + "\".", e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof IterationSignature && ((IterationSignature) o).matches(fingerprint, subcaseIndices);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(fingerprint) + Arrays.hashCode(subcaseIndices);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(Long.toHexString(fingerprint)).append(':');
+		for(int i = 0; i < subcaseIndices.length; i++) {
+			if(i > 0) sb.append(',');
+			sb.append(subcaseIndices[i]);
+		}
+		return sb.toString();
+	}
+
+}
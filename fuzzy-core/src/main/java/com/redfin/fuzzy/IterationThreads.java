@@ -0,0 +1,43 @@
+package com.redfin.fuzzy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads on which test frameworks execute iterations concurrently.
+ *
+ * <p>{@code fuzzy-core} is a multi-release jar. On Java 21 and later, the executors created by this class start a
+ * virtual thread for each task, so that a test whose iterations mostly wait on I/O can run thousands of them
+ * concurrently; on earlier versions, they start a platform daemon thread for each task. In both cases, each thread has
+ * its own {@link Context}, which must be initialized by the task, for example with {@link Context#init(IterationPlan)}.
+ * Generators declared on one thread can be read from any other, since they are bound to the context that declared
+ * them.</p>
+ */
+public final class IterationThreads {
+
+	private IterationThreads() { }
+
+	/**
+	 * Returns {@code true} if the executors created by {@link #newExecutor(String)} run their tasks on virtual threads.
+	 */
+	public static boolean areVirtual() {
+		return false;
+	}
+
+	/**
+	 * Creates an executor that starts a new thread for each task it is given. The threads are named {@code prefix}
+	 * followed by a sequence number, and do not prevent the JVM from exiting.
+	 */
+	public static ExecutorService newExecutor(String prefix) {
+		FuzzyPreconditions.checkNotNull(prefix);
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, prefix + threadNumber.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+}
@@ -0,0 +1,385 @@
+package com.redfin.fuzzy;
+
+import com.redfin.fuzzy.pairwise.InParameterOrder;
+import com.redfin.fuzzy.pairwise.Pairwise;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Caches pairwise iteration plans by their shape, that is, by the number of subcases of each generator. A plan is
+ * stored as rows of subcase indices, so tests that declare generators with the same subcase counts share a single plan
+ * regardless of the subcases' values.
+ *
+ * <p>Plans are kept in a least-recently-used in-memory cache shared by every test in the JVM, which is bounded by the
+ * total number of subcase indices in the plans it holds (about {@value #MAX_CELLS}, or 16MB). When the
+ * {@value #DIRECTORY_PROPERTY} system property names a directory (for example {@code target/fuzzy-plans}), plans are
+ * also persisted there, so that later test runs can skip computing them altogether. A plan is only cached once it has
+ * been computed in full; tests that stop early, and very large plans, are computed lazily as before.</p>
+ */
+/*package*/ final class PlanCache {
+
+	/*package*/ static final String DIRECTORY_PROPERTY = "fuzzy.planCacheDirectory";
+
+	// The number of subcase indices the shared cache holds across all of its plans. Larger plans are still computed,
+	// but never held in memory as a whole.
+	/*package*/ static final long MAX_CELLS = 1 << 22;
+
+	// Bump whenever the layout of the files or the rows computed for a given shape change.
+	private static final int FORMAT_VERSION = 2;
+	private static final int MAGIC = 0x46555a50; // "FUZP"
+
+	/*package*/ static final PlanCache SHARED = new PlanCache(MAX_CELLS, directoryFromSystemProperty());
+
+	private final Map<Shape, Plan> plans = new LinkedHashMap<>(16, 0.75f, true);
+	private final long maxCells;
+	private final Path directory;
+	private long cells;
+
+	/*package*/ PlanCache(long maxCells, Path directory) {
+		this.maxCells = maxCells;
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns the rows of the pairwise plan for generators with the given numbers of subcases, computing them lazily if
+	 * they are not cached yet.
+	 */
+	/*package*/ Rows pairwise(int[] subcaseCounts) {
+		return pairwise(subcaseCounts, false);
+	}
+
+	/**
+	 * Returns the rows of the pairwise plan for generators with the given numbers of subcases, computing them lazily if
+	 * they are not cached yet. Rows that duplicate earlier rows are always left out; when {@code removeRedundantRows}
+	 * is {@code true}, so are rows that cover no pair of subcases that earlier rows have not.
+	 */
+	/*package*/ Rows pairwise(int[] subcaseCounts, boolean removeRedundantRows) {
+		Shape shape = new Shape(removeRedundantRows ? "pairwise-reduced-" : "pairwise-", subcaseCounts);
+
+		Plan plan = get(shape);
+		if(plan != null)
+			return new CachedRows(plan);
+
+		List<List<Integer>> parameters = new ArrayList<>(subcaseCounts.length);
+		for(int count : subcaseCounts) {
+			List<Integer> indices = new ArrayList<>(count);
+			for(int i = 0; i < count; i++)
+				indices.add(i);
+			parameters.add(indices);
+		}
+
+		return new RecordingIterator(shape, new Pairwise<>(parameters, removeRedundantRows).iterator());
+	}
+
+	/**
+	 * Returns the rows of the {@linkplain InParameterOrder in-parameter-order} pairwise plan for generators with the
+	 * given numbers of subcases, computing them if they are not cached yet. These plans never contain redundant rows.
+	 */
+	/*package*/ Rows inParameterOrder(int[] subcaseCounts) {
+		Shape shape = new Shape("ipog-", subcaseCounts);
+
+		Plan plan = get(shape);
+		if(plan == null) {
+			List<int[]> rows = new InParameterOrder(subcaseCounts).generate();
+			plan = new Plan(rows.toArray(new int[rows.size()][]), 0);
+			put(shape, plan);
+		}
+
+		return new CachedRows(plan);
+	}
+
+	private Plan get(Shape shape) {
+		synchronized(plans) {
+			Plan plan = plans.get(shape);
+			if(plan != null)
+				return plan;
+		}
+
+		Plan plan = load(shape);
+		if(plan != null)
+			remember(shape, plan);
+
+		return plan;
+	}
+
+	private void put(Shape shape, Plan plan) {
+		remember(shape, plan);
+		store(shape, plan);
+	}
+
+	private void remember(Shape shape, Plan plan) {
+		long planCells = plan.cells();
+
+		synchronized(plans) {
+			// Plans larger than the whole cache would only evict everything else.
+			if(planCells > maxCells)
+				return;
+
+			Plan replaced = plans.put(shape, plan);
+			if(replaced != null)
+				cells -= replaced.cells();
+			cells += planCells;
+
+			Iterator<Plan> eldest = plans.values().iterator();
+			while(cells > maxCells && eldest.hasNext()) {
+				cells -= eldest.next().cells();
+				eldest.remove();
+			}
+		}
+	}
+
+	private Plan load(Shape shape) {
+		if(directory == null)
+			return null;
+
+		Path file = directory.resolve(shape.fileName());
+		if(!Files.isRegularFile(file))
+			return null;
+
+		try(InputStream in = Files.newInputStream(file);
+			DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+			if(data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION)
+				return null;
+
+			int width = data.readInt();
+			if(width != shape.subcaseCounts.length)
+				return null;
+			for(int count : shape.subcaseCounts)
+				if(data.readInt() != count)
+					return null;
+
+			int rowCount = data.readInt();
+			int removedCount = data.readInt();
+			if(rowCount < 0 || removedCount < 0)
+				return null;
+
+			int[][] rows = new int[rowCount][width];
+			for(int[] row : rows) {
+				for(int slot = 0; slot < width; slot++) {
+					row[slot] = data.readInt();
+					if(row[slot] < 0 || row[slot] >= shape.subcaseCounts[slot])
+						return null;
+				}
+			}
+
+			return new Plan(rows, removedCount);
+		}
+		catch(IOException e) {
+			// A corrupt or unreadable file just means the plan is computed again.
+			return null;
+		}
+	}
+
+	private void store(Shape shape, Plan plan) {
+		if(directory == null)
+			return;
+
+		try {
+			Files.createDirectories(directory);
+
+			// Write to a temporary file first, so that concurrent test runs never read a partially written plan.
+			Path temporary = Files.createTempFile(directory, "plan", ".tmp");
+			try {
+				try(OutputStream out = Files.newOutputStream(temporary);
+					DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+					data.writeInt(MAGIC);
+					data.writeInt(FORMAT_VERSION);
+					data.writeInt(shape.subcaseCounts.length);
+					for(int count : shape.subcaseCounts)
+						data.writeInt(count);
+					data.writeInt(plan.rows.length);
+					data.writeInt(plan.removedCount);
+					for(int[] row : plan.rows)
+						for(int index : row)
+							data.writeInt(index);
+				}
+
+				Files.move(
+					temporary,
+					directory.resolve(shape.fileName()),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE
+				);
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+		}
+		catch(IOException e) {
+			// The on-disk cache is an optimization only; failing to write it must not fail the test.
+		}
+	}
+
+	private static Path directoryFromSystemProperty() {
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		return directory == null || directory.trim().isEmpty() ? null : Paths.get(directory.trim());
+	}
+
+	/**
+	 * The rows of a plan, along with the number of rows the planner removed because they added no coverage.
+	 */
+	/*package*/ interface Rows extends Iterator<int[]> {
+
+		/**
+		 * Returns the number of rows removed from the plan so far. Plans are computed lazily, so the number can grow
+		 * as the plan's rows are read.
+		 */
+		int removedCount();
+
+		static Rows of(Iterator<int[]> rows) {
+			return of(rows, 0);
+		}
+
+		static Rows of(Iterator<int[]> rows, int removedCount) {
+			return new Rows() {
+				@Override public boolean hasNext() { return rows.hasNext(); }
+				@Override public int[] next() { return rows.next(); }
+				@Override public int removedCount() { return removedCount; }
+			};
+		}
+	}
+
+	private static final class Plan {
+		final int[][] rows;
+		final int removedCount;
+
+		Plan(int[][] rows, int removedCount) {
+			this.rows = rows;
+			this.removedCount = removedCount;
+		}
+
+		// Counts each row's array header as one more cell, so that plans with many narrow rows are weighed fairly.
+		long cells() {
+			return rows.length == 0 ? 1 : (long) rows.length * (rows[0].length + 1);
+		}
+	}
+
+	private static final class CachedRows implements Rows {
+		private final Plan plan;
+		private int next;
+
+		CachedRows(Plan plan) {
+			this.plan = plan;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < plan.rows.length;
+		}
+
+		@Override
+		public int[] next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+
+			return plan.rows[next++];
+		}
+
+		@Override
+		public int removedCount() {
+			return plan.removedCount;
+		}
+	}
+
+	/**
+	 * Passes the rows of a plan through as they are computed, and caches the plan once all of its rows have been.
+	 */
+	private class RecordingIterator implements Rows {
+		private final Shape shape;
+		private final Pairwise<?>.TestCaseIterator source;
+		private List<int[]> rows = new ArrayList<>();
+
+		RecordingIterator(Shape shape, Pairwise<?>.TestCaseIterator source) {
+			this.shape = shape;
+			this.source = source;
+
+			if(!source.hasNext())
+				put(shape, new Plan(new int[0][], source.getRemovedCount()));
+		}
+
+		@Override
+		public int removedCount() {
+			return source.getRemovedCount();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return source.hasNext();
+		}
+
+		@Override
+		public int[] next() {
+			if(!source.hasNext())
+				throw new NoSuchElementException();
+
+			List<Object> indices = source.next();
+			int[] row = new int[indices.size()];
+			for(int slot = 0; slot < row.length; slot++)
+				row[slot] = (Integer) indices.get(slot);
+
+			if(rows != null) {
+				rows.add(row);
+				if((long) rows.size() * (row.length + 1) > maxCells)
+					rows = null;
+				else if(!source.hasNext())
+					put(shape, new Plan(rows.toArray(new int[rows.size()][]), source.getRemovedCount()));
+			}
+
+			return row;
+		}
+	}
+
+	private static final class Shape {
+		// Identifies the algorithm, and its options, that computed the plan.
+		private final String prefix;
+		private final int[] subcaseCounts;
+
+		Shape(String prefix, int[] subcaseCounts) {
+			this.prefix = prefix;
+			this.subcaseCounts = subcaseCounts.clone();
+		}
+
+		String fileName() {
+			StringBuilder name = new StringBuilder(prefix);
+			for(int i = 0; i < subcaseCounts.length; i++)
+				name.append(i == 0 ? "" : "x").append(subcaseCounts[i]);
+
+			// Keep the names of very wide plans within file system limits. The file also records the full shape, so a
+			// collision only costs a recomputation.
+			if(name.length() > 200)
+				return prefix + subcaseCounts.length + "-" + Integer.toHexString(hashCode()) + ".plan";
+
+			return name.append(".plan").toString();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return
+				o instanceof Shape &&
+				prefix.equals(((Shape) o).prefix) &&
+				Arrays.equals(subcaseCounts, ((Shape) o).subcaseCounts);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * prefix.hashCode() + Arrays.hashCode(subcaseCounts);
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.redfin.fuzzy;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A source of random bits for generating test values. The values of each generator in each iteration are produced from
+ * a source of their own, created by a {@link Factory} from a seed derived from the test's seed, the iteration's index
+ * and the generator's position.
+ *
+ * <p>Subcases still receive a {@link java.util.Random}: see {@link #asRandom()}. Unless the test is configured
+ * otherwise, that {@code Random} is backed by a {@link SplittableRandom}, which is both faster and statistically
+ * stronger than the 48-bit linear congruential generator of {@code java.util.Random}.</p>
+ */
+@FunctionalInterface
+public interface RandomSource {
+
+	/**
+	 * Returns the next 64 random bits of this source.
+	 */
+	long nextLong();
+
+	/**
+	 * Returns a {@code java.util.Random} that draws every value from this source, for use by
+	 * {@link Subcase#generate(Random)}. The returned instance is not thread-safe and does not support
+	 * {@link Random#setSeed(long)}.
+	 */
+	default Random asRandom() {
+		return new RandomSourceAdapter(this);
+	}
+
+	/**
+	 * Creates random sources from seeds. Two sources created from the same seed by the same factory produce the same
+	 * bits.
+	 */
+	@FunctionalInterface
+	interface Factory {
+
+		/**
+		 * Creates sources backed by {@link SplittableRandom}. This is the default.
+		 */
+		Factory SPLITTABLE_RANDOM = seed -> new SplittableRandom(seed)::nextLong;
+
+		/**
+		 * Creates sources backed by the xoroshiro128++ algorithm, which has a 128-bit state.
+		 */
+		Factory XOROSHIRO_128_PLUS_PLUS = Xoroshiro128PlusPlus::new;
+
+		/**
+		 * Creates sources backed by {@link java.util.Random}, as fuzzy used exclusively in earlier versions.
+		 */
+		Factory JAVA_UTIL_RANDOM = seed -> new Random(seed)::nextLong;
+
+		RandomSource create(long seed);
+
+		/**
+		 * Creates a {@code java.util.Random} for a subcase, from the source created for {@code seed}.
+		 */
+		default Random createRandom(long seed) {
+			return this == JAVA_UTIL_RANDOM ? new Random(seed) : create(seed).asRandom();
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.redfin.fuzzy;
+
+import java.util.Random;
+
+/**
+ * Presents a {@link RandomSource} as a {@code java.util.Random}, so that existing subcases keep working. Every method
+ * of {@code Random} derives its values from {@link #next(int)}, which is overridden to draw from the source instead of
+ * from the atomically updated seed of {@code Random}; the most common methods are also overridden to avoid wasting
+ * bits.
+ */
+/*package*/ final class RandomSourceAdapter extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient RandomSource source;
+
+	/*package*/ RandomSourceAdapter(RandomSource source) {
+		super(0L);
+		this.source = FuzzyPreconditions.checkNotNull(source);
+	}
+
+	@Override
+	public synchronized void setSeed(long seed) {
+		// The constructor of Random calls this method before the source is assigned.
+		if(source != null)
+			throw new UnsupportedOperationException("The random numbers generated by fuzzy cannot be reseeded.");
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int) (source.nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (source.nextLong() >>> 32);
+	}
+
+	@Override
+	public long nextLong() {
+		return source.nextLong();
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return source.nextLong() < 0;
+	}
+
+	@Override
+	public double nextDouble() {
+		return (source.nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	@Override
+	public float nextFloat() {
+		return (source.nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	@Override
+	public void nextBytes(byte[] bytes) {
+		int i = 0;
+		while(i < bytes.length) {
+			long bits = source.nextLong();
+			for(int n = Math.min(bytes.length - i, 8); n-- > 0; bits >>>= 8)
+				bytes[i++] = (byte) bits;
+		}
+	}
+
+}
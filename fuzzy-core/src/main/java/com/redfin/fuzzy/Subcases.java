@@ -1,9 +1,10 @@
 package com.redfin.fuzzy;
 
-import com.redfin.fuzzy.pairwise.Pairwise;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.function.BiFunction;
@@ -19,7 +20,7 @@ public class Subcases {
 		FuzzyPreconditions.checkNotNull(subcases);
 		FuzzyPreconditions.checkNotNull(mapping);
 
-		Set<Subcase<OUTPUT>> mapped = new HashSet<>(subcases.size());
+		Set<Subcase<OUTPUT>> mapped = new LinkedHashSet<>(subcases.size());
 		mapped.addAll(subcases.stream().map(mapping).collect(Collectors.toList()));
 
 		return mapped;
@@ -35,7 +36,7 @@ public class Subcases {
 		Function<Subcase<INPUT>, Subcase<OUTPUT>> mapper =
 			s -> (r -> mapping.apply(r, s.generate(r)));
 
-		return subcases.stream().map(mapper).collect(Collectors.toSet());
+		return subcases.stream().map(mapper).collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 	public static <INPUT, OUTPUT> Set<Subcase<OUTPUT>> mapOutput(
@@ -48,7 +49,7 @@ public class Subcases {
 		Function<Subcase<INPUT>, Subcase<OUTPUT>> mapper =
 			s -> (r -> mapping.apply(s.generate(r)));
 
-		return subcases.stream().map(mapper).collect(Collectors.toSet());
+		return subcases.stream().map(mapper).collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 	public interface BiPermutedSupplierFunction<T, U, R> {
@@ -64,19 +65,160 @@ public class Subcases {
 		FuzzyPreconditions.checkNotNull(tSubcases);
 		FuzzyPreconditions.checkNotNull(uSubcases);
 
-		List<Set> options = new ArrayList<>();
-		options.add(tSubcases);
-		options.add(uSubcases);
+		// Every pair of two parameters is a permutation of both, so this is simply the cross product of the two sets, in
+		// the order the pairwise algorithm would produce it.
+		Set<Subcase<R>> permutations = new LinkedHashSet<>(tSubcases.size() * uSubcases.size());
+		for(Subcase<T> tSubcase : tSubcases) {
+			for(Subcase<U> uSubcase : uSubcases) {
+				permutations.add(new BiPermutedSupplier<>(func, tSubcase, uSubcase));
+			}
+		}
+
+		return permutations;
+	}
+
+	/**
+	 * Returns a case whose subcases are the {@linkplain #pairwisePermutations(Set, Set, BiPermutedSupplierFunction)
+	 * pairwise permutations} of the subcases of two other cases. The permutations are only created when the subcases
+	 * are requested; counting them only counts the subcases of the two cases.
+	 */
+	public static <T, U, R> Case<R> pairwisePermutationsOf(
+		Case<T> tCase,
+		Case<U> uCase,
+		BiPermutedSupplierFunction<T, U, R> func
+	) {
+		FuzzyPreconditions.checkNotNull(func);
+		FuzzyPreconditions.checkNotNull(tCase);
+		FuzzyPreconditions.checkNotNull(uCase);
+
+		return new Case<R>() {
+			@Override
+			public Set<Subcase<R>> getSubcases() {
+				return pairwisePermutations(tCase.getSubcases(), uCase.getSubcases(), func);
+			}
+
+			@Override
+			public int getSubcaseCount() {
+				return pairwisePermutationCount(tCase, uCase);
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of {@linkplain #pairwisePermutations(Set, Set, BiPermutedSupplierFunction) pairwise
+	 * permutations} of the subcases of two cases, without creating them.
+	 */
+	public static int pairwisePermutationCount(Case<?> tCase, Case<?> uCase) {
+		return Math.multiplyExact(tCase.getSubcaseCount(), uCase.getSubcaseCount());
+	}
+
+	/**
+	 * Marks a subcase as cacheable: within a test, the fuzzy engine generates its value once and reuses that value in
+	 * every iteration that uses the subcase for the same generator, instead of generating a new one for each iteration.
+	 * This trades the random variation of the subcase's values for speed, and is meant for subcases that build large
+	 * fixtures.
+	 *
+	 * <p>Cached values are shared between iterations, and between the threads executing them, so they must be
+	 * immutable, and cacheable subcases must not read other generators. The cache is bounded by the approximate size
+	 * of the values it holds; a value that has been evicted is generated again, identically, when it is next
+	 * needed.</p>
+	 *
+	 * <p>Only the subcases of a generator's own cases are cached. A cacheable subcase that is wrapped by another
+	 * subcase, for example by {@link Cases#map}, by a collection case such as {@link Any#listOf}, or by
+	 * {@link Cases#compose}, generates a new value each time the wrapping subcase does; mark the outermost case as
+	 * cacheable instead.</p>
+	 *
+	 * @see Case#cacheable()
+	 */
+	public static <T> Subcase<T> cacheable(Subcase<T> subcase) {
+		FuzzyPreconditions.checkNotNull(subcase);
+		return subcase instanceof Cacheable ? subcase : new Cacheable<>(subcase);
+	}
 
-		List<List<Object>> permutations = (new Pairwise(options)).generate();
+	/*package*/ static final class Cacheable<T> implements Subcase<T> {
+		private final Subcase<T> delegate;
+
+		private Cacheable(Subcase<T> delegate) {
+			this.delegate = delegate;
+		}
 
-		return permutations.stream()
-			.map(permutation -> {
-				@SuppressWarnings("unchecked") Subcase<T> tFunc = (Subcase<T>) permutation.get(0);
-				@SuppressWarnings("unchecked") Subcase<U> uFunc = (Subcase<U>) permutation.get(1);
-				return new BiPermutedSupplier<>(func, tFunc, uFunc);
-			})
-			.collect(Collectors.toSet());
+		@Override
+		public T generate(Random random) {
+			return delegate.generate(random);
+		}
+
+		@Override
+		public void describeTo(StringBuilder sink, T value) {
+			delegate.describeTo(sink, value);
+		}
+	}
+
+	/**
+	 * The single subcase of a {@linkplain Cases#dependingOn(Generator, Function) dependent case}, which derives a case
+	 * from the value of another generator each time it generates a value.
+	 */
+	/*package*/ static final class Dependent<S, T> implements Subcase<T> {
+		private final Generator<S> source;
+		private final Function<? super S, ? extends Case<T>> cases;
+
+		// The subcases derived from the last value of the source. Successive iterations usually see the same value, and
+		// deriving a case can be expensive, so it is only derived again when the value changes.
+		private volatile Derived<S, T> last;
+
+		/*package*/ Dependent(Generator<S> source, Function<? super S, ? extends Case<T>> cases) {
+			this.source = source;
+			this.cases = cases;
+		}
+
+		@Override
+		public T generate(Random random) {
+			return generate(random, -1);
+		}
+
+		/**
+		 * Generates a value from one of the subcases of the case derived from the source generator's current value:
+		 * the subcase at {@code rotation} (modulo the number of subcases), or a random one if {@code rotation} is
+		 * negative.
+		 */
+		/*package*/ T generate(Random random, int rotation) {
+			// The source is read through the context of the iteration being generated, which may not be the context of
+			// the calling thread when iterations are generated ahead of time or in parallel.
+			S value = source.get();
+
+			Derived<S, T> derived = last;
+			if(derived == null || !Objects.equals(derived.value, value)) {
+				derived = derive(value);
+				last = derived;
+			}
+
+			List<Subcase<T>> subcases = derived.subcases;
+			int index = rotation < 0 ? random.nextInt(subcases.size()) : rotation % subcases.size();
+			return subcases.get(index).generate(random);
+		}
+
+		private Derived<S, T> derive(S value) {
+			Case<T> derived = cases.apply(value);
+			if(derived == null)
+				throw new IllegalStateException("A dependent generator derived a null case.");
+
+			List<Subcase<T>> subcases = new ArrayList<>(derived.getSubcases());
+			if(subcases.isEmpty())
+				throw new IllegalStateException(
+					String.format("Case of type %s generated zero suppliers.", derived.getClass())
+				);
+
+			return new Derived<>(value, Collections.unmodifiableList(subcases));
+		}
+	}
+
+	private static final class Derived<S, T> {
+		private final S value;
+		private final List<Subcase<T>> subcases;
+
+		private Derived(S value, List<Subcase<T>> subcases) {
+			this.value = value;
+			this.subcases = subcases;
+		}
 	}
 
 	private static class BiPermutedSupplier<T, U, R> implements Subcase<R> {
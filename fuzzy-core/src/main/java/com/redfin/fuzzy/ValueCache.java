@@ -0,0 +1,108 @@
+package com.redfin.fuzzy;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Holds the values of {@linkplain Subcases#cacheable(Subcase) cacheable subcases} for the iterations of a single test,
+ * keyed by generator slot and subcase index. The cache is bounded by the approximate size of the values it holds, so
+ * that a test with many large fixtures evicts the least recently used ones rather than running out of memory.
+ */
+/*package*/ final class ValueCache {
+
+	// Roughly the number of elements (entries, characters, array items) the cache holds for a single test.
+	/*package*/ static final long MAX_WEIGHT = 1 << 20;
+
+	private static final Object NULL = new Object();
+
+	private final long maxWeight;
+	private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long weight;
+
+	/*package*/ ValueCache() {
+		this(MAX_WEIGHT);
+	}
+
+	/*package*/ ValueCache(long maxWeight) {
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * Returns the cached value of a subcase, generating and caching it if needed. Values are generated outside of the
+	 * cache's lock, so two threads may occasionally both generate a missing value; the first one cached wins.
+	 */
+	/*package*/ Object get(int slot, int subcaseIndex, Supplier<?> generator) {
+		Long key = key(slot, subcaseIndex);
+
+		synchronized(this) {
+			Entry entry = entries.get(key);
+			if(entry != null)
+				return unmask(entry.value);
+		}
+
+		Object value = generator.get();
+		long valueWeight = weigh(value);
+
+		synchronized(this) {
+			Entry entry = entries.get(key);
+			if(entry != null)
+				return unmask(entry.value);
+
+			// Values larger than the whole cache would only evict everything else.
+			if(valueWeight <= maxWeight) {
+				entries.put(key, new Entry(mask(value), valueWeight));
+				weight += valueWeight;
+				evict();
+			}
+		}
+
+		return value;
+	}
+
+	/*package*/ synchronized int size() {
+		return entries.size();
+	}
+
+	private void evict() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while(weight > maxWeight && iterator.hasNext()) {
+			weight -= iterator.next().weight;
+			iterator.remove();
+		}
+	}
+
+	private static Long key(int slot, int subcaseIndex) {
+		return ((long) slot << 32) | (subcaseIndex & 0xFFFFFFFFL);
+	}
+
+	/*package*/ static long weigh(Object value) {
+		long weight = 1;
+		if(value instanceof Collection)
+			weight += ((Collection<?>) value).size();
+		else if(value instanceof Map)
+			weight += ((Map<?, ?>) value).size();
+		else if(value instanceof CharSequence)
+			weight += ((CharSequence) value).length();
+		else if(value != null && value.getClass().isArray())
+			weight += Array.getLength(value);
+		return weight;
+	}
+
+	private static Object mask(Object value) { return value == null ? NULL : value; }
+	private static Object unmask(Object value) { return value == NULL ? null : value; }
+
+	private static final class Entry {
+		final Object value;
+		final long weight;
+
+		Entry(Object value, long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.redfin.fuzzy;
+
+/**
+ * The xoroshiro128++ generator of Blackman and Vigna, seeded through SplitMix64 as its authors recommend.
+ */
+/*package*/ final class Xoroshiro128PlusPlus implements RandomSource {
+
+	private long s0;
+	private long s1;
+
+	/*package*/ Xoroshiro128PlusPlus(long seed) {
+		s0 = splitMix64(seed += 0x9E3779B97F4A7C15L);
+		s1 = splitMix64(seed + 0x9E3779B97F4A7C15L);
+	}
+
+	@Override
+	public long nextLong() {
+		long s0 = this.s0;
+		long s1 = this.s1;
+		long result = Long.rotateLeft(s0 + s1, 17) + s0;
+
+		s1 ^= s0;
+		this.s0 = Long.rotateLeft(s0, 49) ^ s1 ^ (s1 << 21);
+		this.s1 = Long.rotateLeft(s1, 28);
+
+		return result;
+	}
+
+	private static long splitMix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -9,10 +9,10 @@ import com.redfin.fuzzy.Subcases;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -60,6 +60,14 @@ public abstract class CollectionCase<COLLECTION extends Collection<ELEMENT>, ELE
 		return this;
 	}
 
+	@Override
+	public int getSubcaseCount() {
+		if(homogeneousMode)
+			return Subcases.pairwisePermutationCount(sizeCase, elementsCase);
+		else
+			return Math.max(sizeCase.getSubcaseCount() + 2, elementsCase.getSubcaseCount());
+	}
+
 	@Override
 	public Set<Subcase<COLLECTION>> getSubcases() {
 		if(homogeneousMode) {
@@ -89,10 +97,9 @@ public abstract class CollectionCase<COLLECTION extends Collection<ELEMENT>, ELE
 			// Return enough functions to cover either all size cases or all supplier cases, whichever is greater.
 			// Add some arbitrarily chosen padding to the size cases to account for some subset of them which will be
 			// zero.
-			AtomicInteger elementSelector = new AtomicInteger(0);
 			int supplierCount = Math.max(sizeSubcases.size() + 2, elementSubcases.size());
 
-			Set<Subcase<COLLECTION>> suppliers = new HashSet<>(supplierCount);
+			Set<Subcase<COLLECTION>> suppliers = new LinkedHashSet<>(supplierCount);
 			for(int i = 0; i < supplierCount; i++) {
 				suppliers.add(new CollectionSupplier<>(
 					this::createCollection,
@@ -104,7 +111,7 @@ public abstract class CollectionCase<COLLECTION extends Collection<ELEMENT>, ELE
 						sizeSubcases.get(i % sizeSubcases.size())
 					),
 					elementSubcases,
-					elementSelector
+					i
 				));
 			}
 
@@ -117,18 +124,18 @@ public abstract class CollectionCase<COLLECTION extends Collection<ELEMENT>, ELE
 		private final Function<Integer, D> collectionCreator;
 		private final Subcase<Integer> sizeSubcase;
 		private final List<Subcase<U>> elementSubcases;
-		private final AtomicInteger elementSelector;
+		private final int firstElementSubcase;
 
 		private CollectionSupplier(
 			Function<Integer, D> collectionCreator,
 			Subcase<Integer> sizeSubcase,
 			List<Subcase<U>> elementSubcases,
-			AtomicInteger elementSelector
+			int firstElementSubcase
 		) {
 			this.collectionCreator = collectionCreator;
 			this.sizeSubcase = sizeSubcase;
 			this.elementSubcases = elementSubcases;
-			this.elementSelector = elementSelector;
+			this.firstElementSubcase = firstElementSubcase;
 		}
 
 		@Override
@@ -140,9 +147,11 @@ public abstract class CollectionCase<COLLECTION extends Collection<ELEMENT>, ELE
 					size
 				));
 
+			// Each supplier cycles through the element subcases from a different starting point, so that together they
+			// use every element subcase, and each collection is independent of the ones generated before it.
 			D result = collectionCreator.apply(size);
 			for(int i = 0; i < size; i++) {
-				int j = elementSelector.getAndIncrement() % elementSubcases.size();
+				int j = (firstElementSubcase + i) % elementSubcases.size();
 				result.add(FuzzyPreconditions.checkNotNull(
 					"Case for collection elements returned an illegal null supplier.",
 					elementSubcases.get(j)
@@ -3,6 +3,7 @@ package com.redfin.fuzzy.cases;
 import com.redfin.fuzzy.Case;
 import com.redfin.fuzzy.Subcase;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -92,7 +93,7 @@ public class DoubleNumericCase implements Case<Double> {
 
 	@Override
 	public Set<Subcase<Double>> getSubcases() {
-		Set<Subcase<Double>> cases = new HashSet<>();
+		Set<Subcase<Double>> cases = new LinkedHashSet<>();
 
 		// Zero
 		if(!excluding.contains(0.0) && (min == null || min < 0) && (max == null || max > 0))
@@ -130,6 +131,6 @@ public class DoubleNumericCase implements Case<Double> {
 		if(max != null && !excluding.contains(max))
 			cases.add(r -> max);
 
-		return cases.stream().map(this::exclude).collect(Collectors.toSet());
+		return cases.stream().map(this::exclude).collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 }
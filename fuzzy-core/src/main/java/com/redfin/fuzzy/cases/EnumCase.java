@@ -5,6 +5,7 @@ import com.redfin.fuzzy.FuzzyPreconditions;
 import com.redfin.fuzzy.Subcase;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,7 +32,7 @@ public class EnumCase<T extends Enum> implements Case<T> {
 		Set<Subcase<T>> subcases = Arrays.stream(enumClass.getEnumConstants())
 			.filter(t -> !excluded.contains(t))
 			.map(t -> (Subcase<T>)(r -> t))
-			.collect(Collectors.toSet());
+			.collect(Collectors.toCollection(LinkedHashSet::new));
 
 		if(subcases.isEmpty())
 			throw new IllegalStateException(String.format(
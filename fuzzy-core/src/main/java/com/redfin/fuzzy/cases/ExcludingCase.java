@@ -54,6 +54,11 @@ public class ExcludingCase<T> implements Case<T> {
 		);
 	}
 
+	@Override
+	public int getSubcaseCount() {
+		return baseCase.getSubcaseCount();
+	}
+
 	@Override
 	public ExcludingCase<T> excluding(Iterable<T> values) {
 		if(values != null) {
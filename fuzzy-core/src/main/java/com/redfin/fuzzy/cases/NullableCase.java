@@ -3,7 +3,7 @@ package com.redfin.fuzzy.cases;
 import com.redfin.fuzzy.Case;
 import com.redfin.fuzzy.FuzzyPreconditions;
 import com.redfin.fuzzy.Subcase;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class NullableCase<T> implements Case<T> {
@@ -16,7 +16,7 @@ public class NullableCase<T> implements Case<T> {
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		Set<Subcase<T>> subcases = new HashSet<>();
+		Set<Subcase<T>> subcases = new LinkedHashSet<>();
 		subcases.addAll(delegateCase.getSubcases());
 		subcases.add(r -> null);
 		return subcases;
@@ -9,6 +9,7 @@ import com.redfin.fuzzy.Subcase;
 import com.redfin.fuzzy.Subcases;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -65,18 +66,18 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 
 	public Case<T> greaterThanOrEqualTo(Generator<T> minInclusive) {
 		FuzzyPreconditions.checkNotNull(minInclusive);
-		return () -> Subcases.pairwisePermutations(
-			Collections.<Subcase<T>>singleton(random -> minInclusive.get()),
-			newCase().greaterThanOrEqualTo(i2t(1)).getSubcases(),
+		return Subcases.pairwisePermutationsOf(
+			() -> Collections.<Subcase<T>>singleton(random -> minInclusive.get()),
+			newCase().greaterThanOrEqualTo(i2t(1)),
 			(random, base, distance) -> add(base, distance)
 		);
 	}
 
 	public Case<T> lessThanOrEqualTo(Generator<T> maxInclusive) {
 		FuzzyPreconditions.checkNotNull(maxInclusive);
-		return () -> Subcases.pairwisePermutations(
-			Collections.<Subcase<T>>singleton(random -> maxInclusive.get()),
-			newCase().greaterThanOrEqualTo(i2t(1)).getSubcases(),
+		return Subcases.pairwisePermutationsOf(
+			() -> Collections.<Subcase<T>>singleton(random -> maxInclusive.get()),
+			newCase().greaterThanOrEqualTo(i2t(1)),
 			(random, base, distance) -> add(base, negate(distance))
 		);
 	}
@@ -98,19 +99,19 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 		public Case<T> butExcludingValueOf(Generator<T> number) {
 			FuzzyPreconditions.checkNotNull(number);
 			if(range.equals(baseCase.i2t(1))) {
-				return () -> Subcases.pairwisePermutations(
-					Collections.<Subcase<T>>singleton(random -> number.get()),
-					Any.of(-1, 1).getSubcases(),
+				return Subcases.pairwisePermutationsOf(
+					() -> Collections.<Subcase<T>>singleton(random -> number.get()),
+					Any.of(-1, 1),
 					(random, base, distance) -> baseCase.add(base, baseCase.i2t(distance))
 				);
 			}
 			else {
-				return () -> Subcases.pairwisePermutations(
-					Collections.<Subcase<T>>singleton(random -> number.get()),
+				return Subcases.pairwisePermutationsOf(
+					() -> Collections.<Subcase<T>>singleton(random -> number.get()),
 					Any.of(
 						baseCase.newCase().inRange(baseCase.negate(range), baseCase.i2t(-1)),
 						baseCase.newCase().inRange(baseCase.i2t(1), range)
-					).getSubcases(),
+					),
 					(random, base, distance) -> baseCase.add(base, distance)
 				);
 			}
@@ -120,20 +121,20 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 			FuzzyPreconditions.checkNotNull(number);
 
 			if(range.equals(baseCase.i2t(1))) {
-				return () -> Subcases.pairwisePermutations(
-					Collections.<Subcase<T>>singleton(random -> number.get()),
-					Any.of(-1, 0, 1).getSubcases(),
+				return Subcases.pairwisePermutationsOf(
+					() -> Collections.<Subcase<T>>singleton(random -> number.get()),
+					Any.of(-1, 0, 1),
 					(random, base, distance) -> baseCase.add(base, baseCase.i2t(distance))
 				);
 			}
 			else {
-				return () -> Subcases.pairwisePermutations(
-					Collections.<Subcase<T>>singleton(random -> number.get()),
+				return Subcases.pairwisePermutationsOf(
+					() -> Collections.<Subcase<T>>singleton(random -> number.get()),
 					Any.of(
 						baseCase.newCase().inRange(baseCase.negate(range), baseCase.i2t(-1)),
 						Literal.value(baseCase.i2t(0)),
 						baseCase.newCase().inRange(baseCase.i2t(1), range)
-					).getSubcases(),
+					),
 					(random, base, distance) -> baseCase.add(base, distance)
 				);
 			}
@@ -152,7 +153,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		Set<Subcase<T>> subcases = new HashSet<>(3);
+		Set<Subcase<T>> subcases = new LinkedHashSet<>(3);
 		final T zero = i2t(0);
 
 		// Negative
@@ -201,7 +202,7 @@ public abstract class NumericCase<T extends Number> implements Case<T> {
 		// Let the subclass add additional cases if it wants to.
 		addAdditionalSubcases(subcases);
 
-		return subcases.stream().map(this::exclude).collect(Collectors.toSet());
+		return subcases.stream().map(this::exclude).collect(Collectors.toCollection(LinkedHashSet::new));
 	}
 
 	protected abstract NumericCase<T> newCase();
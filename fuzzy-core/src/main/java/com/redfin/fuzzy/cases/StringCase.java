@@ -105,6 +105,11 @@ public class StringCase implements Case<String> {
 		return withSourceStrings(HEX_CHARS);
 	}
 
+	@Override
+	public int getSubcaseCount() {
+		return Subcases.pairwisePermutationCount(length, sourceStrings);
+	}
+
 	@Override
 	public Set<Subcase<String>> getSubcases() {
 		// TODO: this is wasteful with regards to the case of string length of zero, which always results in ""
@@ -4,7 +4,7 @@ import com.redfin.fuzzy.Case;
 import com.redfin.fuzzy.Subcase;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class UnionCase<T> implements Case<T> {
@@ -13,12 +13,12 @@ public class UnionCase<T> implements Case<T> {
 
 	@SafeVarargs
 	public UnionCase(Case<T>... subcases) {
-		_subcases = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(subcases)));
+		_subcases = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(subcases)));
 	}
 
 	@Override
 	public Set<Subcase<T>> getSubcases() {
-		Set<Subcase<T>> subcases = new HashSet<>(_subcases.size());
+		Set<Subcase<T>> subcases = new LinkedHashSet<>(_subcases.size());
 		for(Case<T> subcase : _subcases) {
 			subcases.addAll(subcase.getSubcases());
 		}
@@ -0,0 +1,176 @@
+package com.redfin.fuzzy.pairwise;
+
+import com.redfin.fuzzy.FuzzyPreconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Generates pairwise test cases with the in-parameter-order (IPOG) strategy. Where {@link Pairwise} builds one test
+ * case at a time from whichever pairs are left, this strategy starts from every combination of the two largest
+ * parameters and adds the remaining parameters one by one: each new parameter first extends the existing test cases
+ * with the values that cover the most new pairs ("horizontal growth"), and only the pairs that are still missing
+ * afterwards are placed in additional test cases ("vertical growth"). The result usually has far fewer test cases;
+ * for example, for ten parameters of five values each, it has about a third as many.
+ *
+ * <p>Parameters are described by their number of values only, and test cases hold the index of each parameter's
+ * value. Every test case covers at least one pair that no earlier test case covers, and no two test cases are
+ * identical. The test cases are deterministic, but are computed all at once rather than lazily.</p>
+ */
+public class InParameterOrder {
+
+	// Marks a value that no pair depends on yet, and that can still be changed to cover another pair.
+	private static final int ANY = -1;
+
+	private final int[] valueCounts;
+
+	/**
+	 * Creates a generator for parameters with the given numbers of values.
+	 *
+	 * @param valueCounts the number of values of each parameter. There must be at least one parameter, and each must
+	 *        have at least one value.
+	 */
+	public InParameterOrder(int[] valueCounts) {
+		FuzzyPreconditions.checkNotNull(valueCounts);
+		if(valueCounts.length == 0)
+			throw new IllegalArgumentException("At least one parameter is required.");
+		for(int count : valueCounts)
+			if(count < 1)
+				throw new IllegalArgumentException("Every parameter must have at least one value.");
+
+		this.valueCounts = valueCounts.clone();
+	}
+
+	/**
+	 * Computes the test cases. Each test case holds, for each parameter in the order given to the constructor, the
+	 * index of one of its values.
+	 */
+	public List<int[]> generate() {
+		int width = valueCounts.length;
+
+		// Add the parameters from largest to smallest, which keeps the initial test cases, and thus the plan, small.
+		Integer[] order = new Integer[width];
+		for(int i = 0; i < width; i++)
+			order[i] = i;
+		Arrays.sort(order, (a, b) -> Integer.compare(valueCounts[b], valueCounts[a]));
+
+		int[] counts = new int[width];
+		for(int i = 0; i < width; i++)
+			counts[i] = valueCounts[order[i]];
+
+		List<int[]> rows = new ArrayList<>();
+		if(width == 1) {
+			for(int value = 0; value < counts[0]; value++)
+				rows.add(new int[] { value });
+		}
+		else {
+			for(int a = 0; a < counts[0]; a++) {
+				for(int b = 0; b < counts[1]; b++) {
+					int[] row = new int[width];
+					Arrays.fill(row, ANY);
+					row[0] = a;
+					row[1] = b;
+					rows.add(row);
+				}
+			}
+
+			for(int parameter = 2; parameter < width; parameter++)
+				extend(rows, counts, parameter);
+		}
+
+		return finish(rows, counts, order);
+	}
+
+	private static void extend(List<int[]> rows, int[] counts, int parameter) {
+		int values = counts[parameter];
+
+		// uncovered[earlier][earlierValue * values + value] is true while the pair is not covered by any test case.
+		boolean[][] uncovered = new boolean[parameter][];
+		for(int earlier = 0; earlier < parameter; earlier++) {
+			uncovered[earlier] = new boolean[counts[earlier] * values];
+			Arrays.fill(uncovered[earlier], true);
+		}
+
+		// Horizontal growth: give every existing test case the value that covers the most new pairs, preferring the
+		// least used value on ties so that the values are spread evenly.
+		int[] uses = new int[values];
+		for(int[] row : rows) {
+			int best = 0;
+			int bestGain = -1;
+			for(int value = 0; value < values; value++) {
+				int gain = 0;
+				for(int earlier = 0; earlier < parameter; earlier++)
+					if(row[earlier] != ANY && uncovered[earlier][row[earlier] * values + value])
+						gain++;
+
+				if(gain > bestGain || (gain == bestGain && uses[value] < uses[best])) {
+					best = value;
+					bestGain = gain;
+				}
+			}
+
+			row[parameter] = best;
+			uses[best]++;
+			cover(row, uncovered, parameter, values);
+		}
+
+		// Vertical growth: place each pair that is still missing in a test case that has no value for the earlier
+		// parameter yet, or in a new test case.
+		for(int earlier = 0; earlier < parameter; earlier++) {
+			for(int earlierValue = 0; earlierValue < counts[earlier]; earlierValue++) {
+				for(int value = 0; value < values; value++) {
+					if(!uncovered[earlier][earlierValue * values + value])
+						continue;
+
+					int[] target = null;
+					for(int i = 0; i < rows.size() && target == null; i++) {
+						int[] row = rows.get(i);
+						if(row[parameter] == value && row[earlier] == ANY)
+							target = row;
+					}
+
+					if(target == null) {
+						target = new int[counts.length];
+						Arrays.fill(target, ANY);
+						target[parameter] = value;
+						rows.add(target);
+					}
+
+					target[earlier] = earlierValue;
+					cover(target, uncovered, parameter, values);
+				}
+			}
+		}
+	}
+
+	private static void cover(int[] row, boolean[][] uncovered, int parameter, int values) {
+		for(int earlier = 0; earlier < parameter; earlier++)
+			if(row[earlier] != ANY)
+				uncovered[earlier][row[earlier] * values + row[parameter]] = false;
+	}
+
+	private static List<int[]> finish(List<int[]> rows, int[] counts, Integer[] order) {
+		// Values no pair depends on are chosen round-robin, so that the test cases still exercise varied values. Every
+		// row already covers a pair no earlier row covers, so filling them in can never produce duplicates.
+		int[] nextValues = new int[counts.length];
+		List<int[]> testCases = new ArrayList<>(rows.size());
+
+		for(int[] row : rows) {
+			int[] testCase = new int[row.length];
+			for(int i = 0; i < row.length; i++) {
+				int value = row[i];
+				if(value == ANY) {
+					value = nextValues[i];
+					nextValues[i] = (value + 1) % counts[i];
+				}
+
+				testCase[order[i]] = value;
+			}
+
+			testCases.add(testCase);
+		}
+
+		return testCases;
+	}
+
+}
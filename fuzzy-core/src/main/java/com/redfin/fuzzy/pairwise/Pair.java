@@ -12,9 +12,7 @@ package com.redfin.fuzzy.pairwise;
 
 	@Override
 	public int hashCode() {
-		return
-			(p1.param.id * 1000 + p1.id) +
-			(p2.param.id * 100 + p2.id);
+		return 31 * (31 * (31 * p1.param.id + p1.id) + p2.param.id) + p2.id;
 	}
 
 	@Override
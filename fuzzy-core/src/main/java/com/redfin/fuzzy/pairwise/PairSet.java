@@ -1,22 +1,51 @@
 package com.redfin.fuzzy.pairwise;
 
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedHashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
+/**
+ * The pairs of parameter values that remain to be covered, stored as a single bitset rather than as {@link Pair}
+ * objects. The pairs of parameters {@code i < j} occupy a block of {@code |i| * |j|} bits, in which the pair of the
+ * {@code a}-th value of {@code i} and the {@code b}-th value of {@code j} is bit {@code a * |j| + b}. Pairs are thus
+ * enumerated implicitly, and a set holding every pair of 30 parameters with 20 values each takes about 20KB.
+ */
 /*package*/ class PairSet {
 
-	private final Map<Param, ParamPairs> allPairs = new HashMap<>();
+	private final List<Param> params;
+
+	// offsets[i][j], for i < j, is the first bit of the block of parameters i and j.
+	private final int[][] offsets;
+
+	// cursors[i][j] is at or before the first remaining bit of the block. Bits are only ever cleared, so the cursor
+	// only moves forward, and consuming every pair of a block scans it once.
+	private final int[][] cursors;
+
+	private final BitSet bits;
 	private int pairs;
 
-	/*package*/ void register(Pair pair) {
-		register(pair.p1.param, pair.p2.param, pair);
-		register(pair.p2.param, pair.p1.param, pair);
+	/**
+	 * Creates a set that holds every pair of values of the given parameters. The parameters' ids must be their
+	 * positions in the list.
+	 */
+	/*package*/ PairSet(List<Param> params) {
+		this.params = params;
+		this.offsets = new int[params.size()][params.size()];
+		this.cursors = new int[params.size()][params.size()];
+
+		int size = 0;
+		for(int i = 0; i < params.size() - 1; i++) {
+			for(int j = i + 1; j < params.size(); j++) {
+				offsets[i][j] = size;
+				cursors[i][j] = size;
+				size += params.get(i).values.size() * params.get(j).values.size();
+			}
+		}
 
-		pairs++;
+		this.bits = new BitSet(size);
+		this.bits.set(0, size);
+		this.pairs = size;
 	}
 
 	/*package*/ boolean isEmpty() {
@@ -27,66 +56,68 @@ import java.util.Set;
 		return pairs;
 	}
 
+	/**
+	 * Returns the remaining pairs as {@link Pair} objects.
+	 */
 	/*package*/ Set<Pair> toSet() {
 		Set<Pair> set = new HashSet<>(pairs);
-		for(ParamPairs paramPairs : allPairs.values())
-			for(Pairs subset : paramPairs.pairs.values())
-				set.addAll(subset);
+		for(int i = 0; i < params.size() - 1; i++) {
+			for(int j = i + 1; j < params.size(); j++) {
+				int end = end(i, j);
+				for(int bit = bits.nextSetBit(offsets[i][j]); bit >= 0 && bit < end; bit = bits.nextSetBit(bit + 1))
+					set.add(pair(i, j, bit));
+			}
+		}
 
 		return set;
 	}
 
+	/**
+	 * Removes and returns the first remaining pair of values of the given parameters, in the order of the parameters'
+	 * values, or returns {@code null} if every pair of the two has been removed.
+	 */
 	/*package*/ Pair consume(Param p1, Param p2) {
-		Pair p = allPairs.get(p1).get(p2).consume();
-		if(p == null) return null;
-
-		// Consume this pair's twin as well.
-		allPairs.get(p2).discard(p);
+		int i = Math.min(p1.id, p2.id);
+		int j = Math.max(p1.id, p2.id);
+
+		int end = end(i, j);
+		int bit = bits.nextSetBit(cursors[i][j]);
+		if(bit < 0 || bit >= end) {
+			cursors[i][j] = end;
+			return null;
+		}
 
+		bits.clear(bit);
+		cursors[i][j] = bit + 1;
 		pairs--;
 
-		return p;
+		return pair(i, j, bit);
 	}
 
-	private void register(Param p1, Param p2, Pair p) {
-		if(!allPairs.containsKey(p1))
-			allPairs.put(p1, new ParamPairs());
+	/**
+	 * Removes the pair of the given values of two different parameters, and returns {@code true} if the set held it.
+	 */
+	/*package*/ boolean remove(ParamValue v1, ParamValue v2) {
+		ParamValue first = v1.param.id < v2.param.id ? v1 : v2;
+		ParamValue second = first == v1 ? v2 : v1;
 
-		allPairs.get(p1).register(p2, p);
-	}
+		int bit = offsets[first.param.id][second.param.id] + first.id * second.param.values.size() + second.id;
+		if(!bits.get(bit))
+			return false;
 
-	private static class ParamPairs {
-		final Map<Param, Pairs> pairs = new HashMap<>();
-
-		Pairs get(Param p2) {
-			return pairs.get(p2);
-		}
-
-		void register(Param p2, Pair p) {
-			if(!pairs.containsKey(p2))
-				pairs.put(p2, new Pairs());
-
-			pairs.get(p2).add(p);
-		}
-
-		void discard(Pair p) {
-			Pairs subset = pairs.get(p.p2.param);
-			if(subset != null) subset.remove(p);
-		}
+		bits.clear(bit);
+		pairs--;
+		return true;
 	}
 
-	private static class Pairs extends LinkedHashSet<Pair> {
-		private static final long serialVersionUID = 1;
-		Pair consume() {
-			if(size() == 0)
-				return null;
-
-			Iterator<Pair> i = iterator();
-			Pair p = i.next();
+	private int end(int i, int j) {
+		return offsets[i][j] + params.get(i).values.size() * params.get(j).values.size();
+	}
 
-			remove(p);
-			return p;
-		}
+	private Pair pair(int i, int j, int bit) {
+		List<ParamValue> second = params.get(j).values;
+		int index = bit - offsets[i][j];
+		return new Pair(params.get(i).values.get(index / second.size()), second.get(index % second.size()));
 	}
 
 }
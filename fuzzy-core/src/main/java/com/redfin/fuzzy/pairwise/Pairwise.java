@@ -5,17 +5,31 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Stack;
 
 public class Pairwise<S extends Collection> {
 
 	private final List<Param> params;
+	private final boolean removeRedundantTestCases;
 
 	public Pairwise(List<S> parameters) {
+		this(parameters, false);
+	}
+
+	/**
+	 * Creates a pairwise generator for the given parameters. Test cases that exactly duplicate an earlier test case are
+	 * always removed; when {@code removeRedundantTestCases} is {@code true}, so is every test case whose pairs have all
+	 * been covered by earlier test cases, so that each remaining test case covers at least one new pair.
+	 */
+	public Pairwise(List<S> parameters, boolean removeRedundantTestCases) {
 		FuzzyPreconditions.checkNotNull(parameters);
+		this.removeRedundantTestCases = removeRedundantTestCases;
 
 		List<Param> params = new ArrayList<>();
 		int i = 0;
@@ -28,44 +42,109 @@ public class Pairwise<S extends Collection> {
 	}
 
 	/*package*/ PairSet generatePairs() {
-		PairSet pairs = new PairSet();
+		return new PairSet(params);
+	}
 
-		for(int i = 0; i < params.size() - 1; i++) {
-			for(ParamValue p1 : params.get(i).values) {
-				for(int j = i + 1; j < params.size(); j++) {
-					for(ParamValue p2 : params.get(j).values) {
-						pairs.register(new Pair(p1, p2));
-					}
-				}
-			}
-		}
+	public Stack<List<Object>> generate() {
+		Stack<List<Object>> testCases = new Stack<>();
+		iterator().forEachRemaining(testCases::add);
+		return testCases;
+	}
 
-		return pairs;
+	/**
+	 * Returns an iterator that computes the same test cases as {@link #generate()}, one at a time. Each test case is
+	 * only built when {@link Iterator#next()} is called, so callers that consume the cases as they go never need to hold
+	 * more than one of them in memory.
+	 */
+	public TestCaseIterator iterator() {
+		return new TestCaseIterator();
 	}
 
-	public Stack<List<Object>> generate() {
+	/**
+	 * Iterates over the test cases computed by a {@link Pairwise} generator, and counts the test cases it removed.
+	 */
+	public class TestCaseIterator implements Iterator<List<Object>> {
 		// Special case: if there's only one parameter, then there are obviously no pairs. Just return all the parameter
 		// values.
-		if(params.size() == 1) {
-			Stack<List<Object>> ret = new Stack<>();
-			for(ParamValue value : params.get(0).values) {
-				ret.push(Collections.singletonList(value.value));
-			}
-			return ret;
-		}
+		private final Iterator<ParamValue> singleParamValues =
+			params.size() == 1 ? params.get(0).values.iterator() : null;
 
 		// Step 1: build some round-robin selectors for all of the parameters.
-		Map<Param, Selector> selectors = new HashMap<>(params.size());
-		for(Param p : params) selectors.put(p, new Selector(p));
+		private final Map<Param, Selector> selectors = new HashMap<>(params.size());
 
 		// Step 2: compute all of the expected pairs in our input set.
-		PairSet pairs = generatePairs();
+		private final PairSet pairs = generatePairs();
 
-		// Step 3: start consuming pairs one at a time until each pair has been used.
-		Stack<List<Object>> testCases = new Stack<>();
-		while(!pairs.isEmpty()) {
+		// The round-robin selectors can complete a test case exactly as an earlier one, or, incidentally, with pairs
+		// that later test cases choose again; track what has been emitted to remove those test cases.
+		private final Set<List<ParamValue>> emitted = new HashSet<>();
+		private final PairSet uncovered = removeRedundantTestCases ? generatePairs() : null;
+
+		private List<ParamValue> next;
+		private int removed;
+
+		TestCaseIterator() {
+			for(Param p : params) selectors.put(p, new Selector(p));
+		}
+
+		/**
+		 * Returns the number of test cases removed so far because they duplicated earlier test cases or, if requested,
+		 * covered no new pairs.
+		 */
+		public int getRemovedCount() {
+			return removed;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(singleParamValues != null)
+				return singleParamValues.hasNext();
+
+			while(next == null && !pairs.isEmpty()) {
+				List<ParamValue> candidate = nextCandidate();
+				if(isNew(candidate))
+					next = candidate;
+				else
+					removed++;
+			}
+
+			return next != null;
+		}
+
+		@Override
+		public List<Object> next() {
+			if(!hasNext())
+				throw new NoSuchElementException();
+
+			if(singleParamValues != null)
+				return Collections.singletonList(singleParamValues.next().value);
+
+			List<Object> values = new ArrayList<>(next.size());
+			for(ParamValue value : next)
+				values.add(value.value);
+
+			next = null;
+			return values;
+		}
+
+		private boolean isNew(List<ParamValue> candidate) {
+			if(!emitted.add(candidate))
+				return false;
+			if(uncovered == null)
+				return true;
+
+			boolean coversNewPair = false;
+			for(int i = 0; i < candidate.size() - 1; i++)
+				for(int j = i + 1; j < candidate.size(); j++)
+					coversNewPair |= uncovered.remove(candidate.get(i), candidate.get(j));
+
+			return coversNewPair;
+		}
+
+		// Step 3: consume pairs one test case at a time until each pair has been used.
+		private List<ParamValue> nextCandidate() {
 			// Step a: perform an exhaustive search of any pairs we can add to this iteration.
-			Map<Param, Object> chosenValues = new HashMap<>(params.size());
+			Map<Param, ParamValue> chosenValues = new HashMap<>(params.size());
 			for(int i = 0; i < params.size() - 1; i++) {
 				for(int j = i + 1; j < params.size(); j++) {
 					Param p1 = params.get(i);
@@ -74,15 +153,15 @@ public class Pairwise<S extends Collection> {
 					if(!chosenValues.containsKey(p1) && !chosenValues.containsKey(p2)) {
 						Pair p = pairs.consume(p1, p2);
 						if(p != null) {
-							chosenValues.put(p.p1.param, p.p1.value);
-							chosenValues.put(p.p2.param, p.p2.value);
+							chosenValues.put(p.p1.param, p.p1);
+							chosenValues.put(p.p2.param, p.p2);
 						}
 					}
 				}
 			}
 
-			// Step 2: convert our map to a list of output values, filling in any missing parameters from our selectors
-			List<Object> values = new ArrayList<>(params.size());
+			// Step b: convert our map to a list of output values, filling in any missing parameters from our selectors
+			List<ParamValue> values = new ArrayList<>(params.size());
 			for(Param p : params) {
 				if(chosenValues.containsKey(p)) {
 					values.add(chosenValues.get(p));
@@ -92,10 +171,8 @@ public class Pairwise<S extends Collection> {
 				}
 			}
 
-			testCases.add(values);
+			return values;
 		}
-
-		return testCases;
 	}
 
 	private static class Selector {
@@ -106,9 +183,9 @@ public class Pairwise<S extends Collection> {
 			this.p = p;
 		}
 
-		Object next() {
+		ParamValue next() {
 			if(i >= p.values.size()) i = 0;
-			return p.values.get(i++).value;
+			return p.values.get(i++);
 		}
 	}
 
@@ -0,0 +1,25 @@
+package com.redfin.fuzzy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the threads on which test frameworks execute iterations concurrently. This is the Java 21 version of the
+ * class, which starts a virtual thread for each task.
+ */
+public final class IterationThreads {
+
+	private IterationThreads() { }
+
+	public static boolean areVirtual() {
+		return true;
+	}
+
+	public static ExecutorService newExecutor(String prefix) {
+		FuzzyPreconditions.checkNotNull(prefix);
+
+		// Virtual threads are always daemon threads.
+		return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+	}
+
+}
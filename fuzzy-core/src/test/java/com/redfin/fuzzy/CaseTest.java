@@ -2,7 +2,9 @@ package com.redfin.fuzzy;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
@@ -61,4 +63,26 @@ public class CaseTest {
 		subject.generateAllOnce();
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSubcaseCountMatchesSubcases() {
+		List<Case<?>> cases = Arrays.asList(
+			Any.integer(),
+			Any.string(),
+			Any.string().withLength(3).orNull(),
+			Any.string().excluding("a"),
+			Any.listOf(Any.integer(), Any.integer().lessThanOrEqualTo(-7)),
+			Any.listOf(Any.integer(), Any.integer().lessThanOrEqualTo(-7)).withHomogeneousElementSuppliers(),
+			Any.setOf(Any.string()),
+			Any.of(Any.integer(), Any.integer().greaterThanOrEqualTo(5)),
+			Any.of(Any.nullableOf(Any.integer()), Any.nullableOf(Any.string().withLength(3))),
+			Any.nullableOf(Any.nullableOf(Any.integer())),
+			Any.bool(),
+			Subcases.pairwisePermutationsOf(Any.integer(), Any.string(), (r, i, s) -> s + i)
+		);
+
+		for(Case<?> c : cases)
+			assertEquals(c.getSubcases().size(), c.getSubcaseCount());
+	}
+
 }
@@ -0,0 +1,223 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiFunction;
+import org.junit.After;
+import org.junit.Test;
+
+public class CompositionPlannerTest {
+
+	// Pairs the n-th subcases of every parameter, which covers each subcase but hardly any pairs.
+	private static final CompositionPlanner DIAGONAL = subcaseCounts -> {
+		int rows = Arrays.stream(subcaseCounts).max().orElse(0);
+		List<int[]> plan = new ArrayList<>();
+		for(int i = 0; i < rows; i++) {
+			int[] row = new int[subcaseCounts.length];
+			for(int j = 0; j < row.length; j++)
+				row[j] = Math.min(i, subcaseCounts[j] - 1);
+			plan.add(row);
+		}
+		return plan.iterator();
+	};
+
+	@After
+	public void cleanUp() {
+		Context.cleanUp();
+	}
+
+	@Test
+	public void testContextUsesPlanner() {
+		List<String> actual = new ArrayList<>();
+		Context.init(DIAGONAL, 0);
+		do {
+			Generator<Integer> a = Generator.of(1, 2, 3);
+			Generator<String> b = Generator.of("x", "y");
+			actual.add(a.get() + b.get());
+		}
+		while(Context.next());
+
+		Collections.sort(actual);
+		assertEquals(Arrays.asList("1x", "2y", "3y"), actual);
+	}
+
+	@Test
+	public void testComposeUsesPlanner() {
+		Case<String> composed = Cases.compose(
+			DIAGONAL,
+			Any.of(1, 2, 3),
+			Any.of("x", "y"),
+			(random, a, b) -> a + b
+		);
+
+		assertEquals(new HashSet<>(Arrays.asList("1x", "2y", "3y")), composed.generateAllOnce(new Random(0)));
+	}
+
+	@Test
+	public void testBuiltInModesMatchComposition() {
+		Set<String> pairwise = Cases.compose(
+			CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,
+			Any.of(1, 2, 3),
+			Any.of("x", "y"),
+			(random, a, b) -> a + b
+		).generateAllOnce(new Random(0));
+		Set<String> eachOnce = Cases.compose(
+			CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE,
+			Any.of(1, 2, 3),
+			Any.of("x", "y"),
+			(random, a, b) -> a + b
+		).generateAllOnce(new Random(0));
+
+		assertEquals(6, pairwise.size());
+		assertEquals(3, eachOnce.size());
+	}
+
+	@Test
+	public void testInParameterOrderCoversEveryPair() {
+		Set<String> pairs = new HashSet<>();
+		int iterations = 0;
+
+		Context.init(CaseCompositionMode.PAIRWISE_IN_PARAMETER_ORDER, 0);
+		do {
+			Generator<Integer> a = Generator.of(1, 2, 3);
+			Generator<Integer> b = Generator.of(1, 2, 3);
+			Generator<Integer> c = Generator.of(1, 2, 3);
+			Generator<Integer> d = Generator.of(1, 2, 3);
+			pairs.add("ab" + a.get() + b.get());
+			pairs.add("ac" + a.get() + c.get());
+			pairs.add("ad" + a.get() + d.get());
+			pairs.add("bc" + b.get() + c.get());
+			pairs.add("bd" + b.get() + d.get());
+			pairs.add("cd" + c.get() + d.get());
+			iterations++;
+		}
+		while(Context.next());
+
+		assertEquals(6 * 9, pairs.size());
+		assertTrue(iterations <= 12);
+	}
+
+	@Test
+	public void testCaseCompositionModeOverloadsRemain() throws NoSuchMethodException {
+		// Code compiled before planners were introduced links against these signatures.
+		Context.class.getMethod("init", CaseCompositionMode.class, long.class);
+		Context.class.getMethod("init", CaseCompositionMode.class, long.class, IterationSelector.class);
+		Context.class.getMethod(
+			"init", CaseCompositionMode.class, long.class, IterationSelector.class, RandomSource.Factory.class
+		);
+		ContextHandle.class.getMethod("init", CaseCompositionMode.class, long.class);
+		Cases.class.getMethod("compose", CaseCompositionMode.class, Case[].class, BiFunction.class);
+		Cases.class.getMethod(
+			"compose", CaseCompositionMode.class, Case.class, Case.class, Cases.TwoCaseCompositionFunction.class
+		);
+	}
+
+	@Test
+	public void testInvalidRowsAreRejected() {
+		Context.init(subcaseCounts -> Collections.singletonList(new int[] { subcaseCounts[0] }).iterator(), 0);
+		Generator<Integer> a = Generator.of(1, 2);
+
+		try {
+			a.get();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			assertTrue(e.getMessage().contains("returned the row [2] for subcase counts [2]"));
+		}
+	}
+
+	@Test
+	public void testOrderedByCoverageKeepsEveryRow() {
+		int[] counts = { 4, 6, 2, 5, 3 };
+		List<String> original = rowsOf(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, counts);
+		List<String> ordered = rowsOf(
+			CompositionPlanner.orderedByCoverage(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES),
+			counts
+		);
+
+		Collections.sort(original);
+		Collections.sort(ordered);
+		assertEquals(original, ordered);
+	}
+
+	@Test
+	public void testOrderedByCoverageRunsMostValuableRowsFirst() {
+		int[] counts = { 2, 20, 3, 11, 17, 5, 8, 2, 13, 4 };
+		List<int[]> original = plan(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, counts);
+		List<int[]> ordered = plan(
+			CompositionPlanner.orderedByCoverage(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES),
+			counts
+		);
+
+		// Each row covers at most as many new pairs as the one before it.
+		Set<String> covered = new HashSet<>();
+		int previous = Integer.MAX_VALUE;
+		for(int[] row : ordered) {
+			int added = 0;
+			for(String pair : pairsOf(row))
+				added += covered.add(pair) ? 1 : 0;
+
+			assertTrue(added <= previous);
+			previous = added;
+		}
+
+		// A run cut short after a tenth of the plan covers about 67% of the pairs in plan order, and 76% reordered.
+		int tenth = original.size() / 10;
+		int total = covered.size();
+		double originalCoverage = coverage(original.subList(0, tenth)) / (double) total;
+		double orderedCoverage = coverage(ordered.subList(0, tenth)) / (double) total;
+		assertTrue(originalCoverage < 0.70);
+		assertTrue(orderedCoverage > 0.75);
+	}
+
+	@Test
+	public void testOrderedByCoverageKeepsOrderOfPlansWithTooManyPairs() {
+		// 50,000 squared pairs are more than a bit set can index.
+		CompositionPlanner planner = subcaseCounts -> Arrays.asList(
+			new int[] { 0, 0 },
+			new int[] { 49_999, 49_999 },
+			new int[] { 0, 1 }
+		).iterator();
+		int[] counts = { 50_000, 50_000 };
+
+		assertEquals(rowsOf(planner, counts), rowsOf(CompositionPlanner.orderedByCoverage(planner), counts));
+	}
+
+	private static List<int[]> plan(CompositionPlanner planner, int[] counts) {
+		List<int[]> rows = new ArrayList<>();
+		planner.plan(counts).forEachRemaining(rows::add);
+		return rows;
+	}
+
+	private static List<String> rowsOf(CompositionPlanner planner, int[] counts) {
+		List<String> rows = new ArrayList<>();
+		for(int[] row : plan(planner, counts))
+			rows.add(Arrays.toString(row));
+		return rows;
+	}
+
+	private static int coverage(List<int[]> rows) {
+		Set<String> pairs = new HashSet<>();
+		for(int[] row : rows)
+			pairs.addAll(pairsOf(row));
+		return pairs.size();
+	}
+
+	private static Set<String> pairsOf(int[] row) {
+		Set<String> pairs = new HashSet<>();
+		for(int i = 0; i < row.length - 1; i++)
+			for(int j = i + 1; j < row.length; j++)
+				pairs.add(i + "=" + row[i] + "," + j + "=" + row[j]);
+		return pairs;
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Test;
+
+public class ContextHandleTest {
+
+	@After
+	public void cleanUp() {
+		Context.cleanUp();
+	}
+
+	@Test
+	public void testHandleMatchesStaticApi() {
+		List<Object> expected = new ArrayList<>();
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 11);
+		try {
+			do {
+				Generator<Integer> a = Generator.of(Any.integer());
+				Generator<String> b = Generator.named("b").of(Any.string());
+				expected.add(a.get());
+				expected.add(b.get());
+			}
+			while(Context.next());
+		}
+		finally {
+			Context.cleanUp();
+		}
+
+		List<Object> actual = new ArrayList<>();
+		try(ContextHandle context = ContextHandle.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 11)) {
+			do {
+				Generator<Integer> a = context.generator(Any.integer());
+				Generator<String> b = context.named("b").of(Any.string());
+				actual.add(a.get());
+				actual.add(b.get());
+			}
+			while(context.next());
+		}
+
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testInterleavedHandles() {
+		ContextHandle first = ContextHandle.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 1);
+		ContextHandle second = ContextHandle.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 2);
+
+		List<Integer> firstValues = new ArrayList<>();
+		List<String> secondValues = new ArrayList<>();
+		boolean firstMore = true, secondMore = true;
+		while(firstMore || secondMore) {
+			if(firstMore) {
+				Generator<Integer> g = first.generator(1, 2, 3);
+				firstValues.add(g.get());
+				firstMore = first.next();
+			}
+			if(secondMore) {
+				Generator<String> g = second.generator("a", "b");
+				secondValues.add(g.get());
+				secondMore = second.next();
+			}
+		}
+
+		firstValues.sort(null);
+		secondValues.sort(null);
+		assertEquals(3, firstValues.size());
+		assertEquals(1, (int) firstValues.get(0));
+		assertEquals(3, (int) firstValues.get(2));
+		assertEquals(2, secondValues.size());
+		assertEquals("a", secondValues.get(0));
+	}
+
+	@Test
+	public void testHandleDoesNotTouchThreadLocalContext() {
+		try(ContextHandle context = ContextHandle.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 0)) {
+			context.generator(Any.integer()).get();
+
+			try {
+				Context.plan();
+				fail();
+			}
+			catch(IllegalStateException e) {
+				// expected
+			}
+		}
+
+		Context.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 0);
+		try(ContextHandle context = ContextHandle.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 0)) {
+			Generator<Integer> g = Generator.of(1);
+			Generator<Integer> h = context.generator(2);
+
+			assertEquals(2, (int) h.get());
+			assertNull(Context.plan());
+			assertEquals(1, (int) g.get());
+		}
+	}
+
+	@Test
+	public void testHandleMovesBetweenThreads() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			assertEquals(stringsAndBooleans(command -> command.run()), stringsAndBooleans(command -> {
+				try {
+					pool.submit(command).get();
+				}
+				catch(Exception e) {
+					throw new AssertionError(e);
+				}
+			}));
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static List<String> stringsAndBooleans(Executor executor) {
+		List<String> values = new ArrayList<>();
+		try(ContextHandle context = ContextHandle.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 5)) {
+			boolean[] more = { true };
+			while(more[0]) {
+				// Each iteration runs to completion before the next one is submitted, possibly to another thread.
+				executor.execute(() -> {
+					Generator<String> s = context.generator(Any.string());
+					Generator<Boolean> b = context.generator(true, false);
+					values.add(s.get() + b.get());
+					more[0] = context.next();
+				});
+			}
+
+			assertFalse(context.next());
+		}
+
+		assertTrue(values.size() > 1);
+		return values;
+	}
+
+	@Test
+	public void testHandleReportsCurrentIteration() {
+		try(ContextHandle context = ContextHandle.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 0)) {
+			Generator<Integer> g = context.named("answer").of(42);
+			g.get();
+
+			assertTrue(context.report().contains("from generator answer"));
+			assertEquals(Context.report(), "");
+		}
+	}
+
+}
@@ -4,18 +4,23 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
+import org.junit.Ignore;
 import org.junit.Test;
 
 public class ContextTest {
@@ -137,6 +142,106 @@ public class ContextTest {
 		);
 	}
 
+	@Test
+	public void testGeneratorsDeclaredInDifferentOrder() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,0);
+
+		Set<String> actuals = new HashSet<>();
+		boolean[] reversed = new boolean[] { false };
+		do {
+			Generator<String> a;
+			Generator<String> b;
+			if(reversed[0]) {
+				b = Generator.named("b").of("1", "2", "3");
+				a = Generator.named("a").of("A", "B", "C");
+			}
+			else {
+				a = Generator.named("a").of("A", "B", "C");
+				b = Generator.named("b").of("1", "2", "3");
+			}
+			reversed[0] = !reversed[0];
+
+			actuals.add(a.get() + b.get());
+		} while(Context.next());
+
+		assertEquals(
+			FuzzyUtil.setOf("A1", "A2", "A3", "B1", "B2", "B3", "C1", "C2", "C3"),
+			actuals
+		);
+	}
+
+	@Test
+	public void testInconsistentGenerators() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,0);
+
+		Generator.named("a").of(1, 2).get();
+		assertTrue(Context.next());
+
+		Generator<Integer> b = Generator.named("b").of(1, 2);
+		try {
+			b.get();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testRegisterDuplicateInLaterIteration() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,0);
+
+		Generator<Integer> a = Generator.named("a").of(1, 2);
+		Generator.named("b").of(1, 2);
+		a.get();
+		assertTrue(Context.next());
+
+		// Later iterations are checked against the first one when the first value is read.
+		Generator.named("a").of(1, 2);
+		Generator<Integer> duplicate = Generator.named("a").of(1, 2);
+		try {
+			duplicate.get();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			// expected
+			assertTrue(e.getMessage().contains("register the same generator twice"));
+		}
+	}
+
+	@Test
+	public void testConsistentGeneratorsWithDifferentCaseCounts() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,0);
+
+		Generator.named("a").of(Literal.value(1), Literal.value(2)).get();
+		assertTrue(Context.next());
+
+		// The fingerprint differs, but the full comparison still matches the generator by name.
+		Generator<Integer> a = Generator.named("a").of(Literal.value(1));
+		assertNotNull(a.get());
+	}
+
+	@Test
+	public void testSwappedUnnamedGeneratorsAreInconsistent() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,0);
+
+		Generator<Integer> integer = Generator.of(Any.integer());
+		Generator.of(Any.string());
+		integer.get();
+		assertTrue(Context.next());
+
+		// Later iterations identify unnamed generators by their positions, and the fingerprint matches.
+		Generator<String> string = Generator.of(Any.string());
+		Generator.of(Any.integer());
+		try {
+			string.get();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			assertTrue(e.getMessage().contains("different than those declared for the first iteration"));
+		}
+	}
+
 	@Test(expected = IllegalStateException.class)
 	public void testNextUninitialized() {
 		Context.next();
@@ -265,6 +370,158 @@ public class ContextTest {
 		assertNotEquals(firstValues, secondValues);
 	}
 
+	@Test
+	public void testRandomIndependentOfReadOrder() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		List<Integer> firstValues = new ArrayList<>();
+		do {
+			Generator<Integer> a = Generator.of(Random::nextInt, Random::nextInt);
+			Generator<Integer> b = Generator.of(Random::nextInt, Random::nextInt);
+			firstValues.add(a.get());
+			firstValues.add(b.get());
+		}
+		while(Context.next());
+
+		Context.cleanUp();
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		List<Integer> secondValues = new ArrayList<>();
+		do {
+			Generator<Integer> a = Generator.of(Random::nextInt, Random::nextInt);
+			Generator<Integer> b = Generator.of(Random::nextInt, Random::nextInt);
+			int bValue = b.get();
+			secondValues.add(a.get());
+			secondValues.add(bValue);
+		}
+		while(Context.next());
+
+		assertEquals(firstValues, secondValues);
+	}
+
+	@Test
+	public void testRandomIndependentOfEarlierIterations() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		List<Integer> firstValues = new ArrayList<>();
+		do {
+			Generator<Integer> a = Generator.of(Random::nextInt, Random::nextInt, Random::nextInt);
+			Generator<Integer> b = Generator.of(Random::nextInt, Random::nextInt, Random::nextInt);
+			b.get();
+			firstValues.add(a.get());
+		}
+		while(Context.next());
+
+		Context.cleanUp();
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		List<Integer> secondValues = new ArrayList<>();
+		do {
+			Generator<Integer> a = Generator.of(Random::nextInt, Random::nextInt, Random::nextInt);
+			Generator<Integer> b = Generator.of(Random::nextInt, Random::nextInt, Random::nextInt);
+
+			// Skip reading a in the first iteration; that must not shift the values of later iterations.
+			if(Context.iterationIndex() == 0) {
+				b.get();
+				secondValues.add(firstValues.get(0));
+			}
+			else {
+				secondValues.add(a.get());
+			}
+		}
+		while(Context.next());
+
+		assertEquals(firstValues, secondValues);
+	}
+
+	@Test
+	public void testIterationSelectorReplaysSameValues() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		List<String> allValues = new ArrayList<>();
+		do {
+			Generator<String> a = Generator.of("A", "B", "C");
+			Generator<Integer> b = Generator.of(Random::nextInt, Random::nextInt, Random::nextInt);
+			allValues.add(a.get() + b.get());
+		}
+		while(Context.next());
+
+		Context.cleanUp();
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, IterationSelector.of(2, 7));
+
+		List<String> selectedValues = new ArrayList<>();
+		List<Integer> indices = new ArrayList<>();
+		do {
+			Generator<String> a = Generator.of("A", "B", "C");
+			Generator<Integer> b = Generator.of(Random::nextInt, Random::nextInt, Random::nextInt);
+			selectedValues.add(a.get() + b.get());
+			indices.add(Context.iterationIndex());
+		}
+		while(Context.next());
+
+		assertEquals(Arrays.asList(2, 7), indices);
+		assertEquals(Arrays.asList(allValues.get(2), allValues.get(7)), selectedValues);
+	}
+
+	@Test
+	public void testIterationSelectorSelectingNothing() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0, IterationSelector.of(100));
+
+		Generator<String> a = Generator.of("A", "B", "C");
+		try {
+			a.get();
+			fail();
+		}
+		catch(IterationNotSelectedException e) {
+			// expected
+		}
+
+		assertFalse(Context.next());
+	}
+
+	@Test
+	public void testCoverage() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		assertEquals(null, Context.coverage());
+
+		List<Coverage> coverages = new ArrayList<>();
+		do {
+			Generator<Integer> a = Generator.of(1, 2, 3);
+			Generator<Integer> b = Generator.of(1, 2, 3, 4);
+			Generator<Integer> c = Generator.of(1, 2);
+			a.get();
+			coverages.add(Context.coverage());
+		}
+		while(Context.next());
+
+		// 3x4 + 3x2 + 4x2 pairs; the first iteration covers one pair of each couple of generators.
+		Coverage first = coverages.get(0);
+		assertEquals(1, first.getIterations());
+		assertEquals(3, first.getCovered());
+		assertEquals(26, first.getTotal());
+
+		Coverage last = coverages.get(coverages.size() - 1);
+		assertEquals(coverages.size(), last.getIterations());
+		assertEquals(26, last.getCovered());
+		assertEquals(1.0, last.getRatio(), 0);
+		assertEquals("26 of 26 subcase pairs (100.0%)", last.toString());
+
+		for(int i = 1; i < coverages.size(); i++)
+			assertTrue(coverages.get(i).getCovered() >= coverages.get(i - 1).getCovered());
+	}
+
+	@Test
+	public void testCoverageSingleGenerator() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		Generator.of(1, 2, 3).get();
+
+		Coverage coverage = Context.coverage();
+		assertEquals(1, coverage.getCovered());
+		assertEquals(3, coverage.getTotal());
+		assertEquals("1 of 3 subcases (33.3%)", coverage.toString());
+	}
+
 	@Test
 	public void testValuesForCurrentIteration() {
 		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES,0);
@@ -324,4 +581,405 @@ public class ContextTest {
 		Context.cleanUp();
 	}
 
+	@Test
+	public void testNullValuesAreGeneratedOnce() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		int[] generated = new int[] { 0 };
+		Generator<String> nullGenerator = Generator.of(() -> FuzzyUtil.setOf(r -> { generated[0]++; return null; }));
+
+		assertEquals(null, nullGenerator.get());
+		assertEquals(null, nullGenerator.get());
+		assertEquals(1, generated[0]);
+		assertEquals("  {null} from generator " + nullGenerator.getName() + "\n", Context.report());
+	}
+
+	@Test
+	public void testConcurrentReadsObserveOneValue() throws InterruptedException {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		AtomicInteger counter = new AtomicInteger();
+		Generator<Integer> generator = Generator.of(() -> FuzzyUtil.setOf(r -> counter.incrementAndGet()));
+		Context.getUnlocked().lock();
+
+		int threadCount = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		Integer[] observed = new Integer[threadCount];
+		Thread[] threads = new Thread[threadCount];
+		for(int i = 0; i < threadCount; i++) {
+			int index = i;
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				}
+				catch(InterruptedException e) {
+					return;
+				}
+				observed[index] = generator.get();
+			});
+			threads[i].start();
+		}
+
+		start.countDown();
+		for(Thread t : threads) {
+			t.join();
+		}
+
+		Integer value = generator.get();
+		for(Integer o : observed) {
+			assertEquals(value, o);
+		}
+	}
+
+	@Test
+	public void testPrioritizedIterationRunsFirst() {
+		List<Integer> indices = new ArrayList<>();
+		List<String> values = new ArrayList<>();
+		IterationSignature[] signature = new IterationSignature[1];
+		runNineIterations(Collections.emptyList(), indices, values, 4, signature);
+
+		List<Integer> prioritizedIndices = new ArrayList<>();
+		List<String> prioritizedValues = new ArrayList<>();
+		runNineIterations(Collections.singletonList(signature[0]), prioritizedIndices, prioritizedValues, -1, null);
+
+		assertEquals(Arrays.asList(4, 0, 1, 2, 3, 5, 6, 7, 8), prioritizedIndices);
+		assertEquals(values.get(4), prioritizedValues.get(0));
+		assertEquals(new HashSet<>(values), new HashSet<>(prioritizedValues));
+	}
+
+	@Test
+	public void testUnmatchedPrioritizedSignaturesAreIgnored() {
+		List<Integer> indices = new ArrayList<>();
+		runNineIterations(
+			Collections.singletonList(IterationSignature.parse("123:0,0")),
+			indices,
+			new ArrayList<>(),
+			-1,
+			null
+		);
+
+		assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8), indices);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPrioritizeAfterPlanIsComputed() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator.of(1, 2).get();
+		Context.prioritize(Collections.emptyList());
+	}
+
+	private static void runNineIterations(
+		List<IterationSignature> prioritized,
+		List<Integer> indices,
+		List<String> values,
+		int signatureIndex,
+		IterationSignature[] signature
+	) {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 42);
+		Context.prioritize(prioritized);
+		try {
+			do {
+				Generator<String> a = Generator.of("A", "B", "C");
+				Generator<Integer> b = Generator.of(r -> r.nextInt(), r -> r.nextInt(), r -> r.nextInt());
+				values.add(a.get() + b.get());
+				indices.add(Context.iterationIndex());
+
+				if(Context.iterationIndex() == signatureIndex)
+					signature[0] = Context.signature();
+			}
+			while(Context.next());
+		}
+		finally {
+			Context.cleanUp();
+		}
+	}
+
+	@Test
+	public void testPrefetchedValuesMatchSynchronousValues() throws InterruptedException {
+		Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+
+		List<Object> synchronous = runWithPrefetch(0, threads);
+		assertEquals(Collections.singleton(Thread.currentThread().getName()), threads);
+
+		threads.clear();
+		List<Object> prefetched = runWithPrefetch(2, threads);
+		assertEquals(synchronous, prefetched);
+		assertTrue(threads.stream().anyMatch(name -> name.startsWith("fuzzy-prefetch-")));
+	}
+
+	@Test
+	public void testPrefetchReadsOtherGeneratorsOfThePrefetchedIteration() throws InterruptedException {
+		Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 7);
+		Context.prefetch(2);
+		try {
+			do {
+				Generator<Integer> base = Generator.of(1, 100, 10000);
+				Generator<Integer> near = Generator.of(r -> {
+					threads.add(Thread.currentThread().getName());
+					return r.nextInt(10);
+				});
+				Generator<Integer> sum = Generator.of(Any.integer().within(5).of(base));
+
+				if(Context.plan() != null)
+					Thread.sleep(20);
+
+				near.get();
+				assertTrue(Math.abs(sum.get() - base.get()) <= 5);
+			}
+			while(Context.next());
+		}
+		finally {
+			Context.cleanUp();
+		}
+
+		assertTrue(threads.stream().anyMatch(name -> name.startsWith("fuzzy-prefetch-")));
+	}
+
+	private static List<Object> runWithPrefetch(int iterations, Set<String> threads) throws InterruptedException {
+		List<Object> values = new ArrayList<>();
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 7);
+		Context.prefetch(iterations);
+		try {
+			do {
+				Generator<List<Integer>> list = Generator.of(Any.listOf(Any.integer()));
+				Generator<String> string = Generator.of(Any.string());
+				Generator<Integer> recorded = Generator.of(
+					r -> { threads.add(Thread.currentThread().getName()); return r.nextInt(); },
+					r -> { threads.add(Thread.currentThread().getName()); return r.nextInt(); }
+				);
+
+				// Give the helper thread time to generate the next iteration's values before this one reads its own.
+				if(Context.plan() != null)
+					Thread.sleep(20);
+
+				values.add(list.get());
+				values.add(string.get());
+				values.add(recorded.get());
+			}
+			while(Context.next());
+		}
+		finally {
+			Context.cleanUp();
+		}
+
+		return values;
+	}
+
+	@Test
+	public void testPrefetchFallsBackForDependentSubcases() {
+		List<Integer> values = new ArrayList<>();
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 7);
+		Context.prefetch(3);
+		do {
+			Generator<Integer> base = Generator.of(1, 2, 3);
+			Generator<Integer> dependent = Generator.of(Any.integer().greaterThanOrEqualTo(base));
+
+			assertTrue(dependent.get() >= base.get());
+			values.add(base.get());
+		}
+		while(Context.next());
+
+		assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), new HashSet<>(values));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativePrefetch() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Context.prefetch(-1);
+	}
+
+	@Test
+	public void testUnreadGeneratorsAreNotExpanded() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		AtomicInteger expansions = new AtomicInteger();
+		Case<Integer> countedCase = new Case<Integer>() {
+			@Override
+			public Set<Subcase<Integer>> getSubcases() {
+				expansions.incrementAndGet();
+				return FuzzyUtil.setOf(r -> 1, r -> 2, r -> 3);
+			}
+
+			@Override
+			public int getSubcaseCount() { return 3; }
+		};
+
+		int iterations = 0;
+		do {
+			Generator<Integer> unread = Generator.of(countedCase);
+			Generator<Boolean> read = Generator.of(Any.bool());
+			read.get();
+			iterations++;
+		}
+		while(Context.next());
+
+		assertEquals(6, iterations);
+		assertEquals(0, expansions.get());
+	}
+
+	@Test
+	public void testMisreportedSubcaseCount() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		Generator<Integer> generator = Generator.of(new Case<Integer>() {
+			@Override
+			public Set<Subcase<Integer>> getSubcases() { return FuzzyUtil.setOf(r -> 1, r -> 2); }
+
+			@Override
+			public int getSubcaseCount() { return 3; }
+		});
+
+		try {
+			generator.get();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			assertTrue(e.getMessage().contains("reported 3 subcases, but generated 2"));
+		}
+	}
+
+	@Test
+	public void testGroupsArePlannedAsSingleParameters() {
+		Set<List<Integer>> firstRows = new HashSet<>();
+		Set<List<Integer>> secondRows = new HashSet<>();
+		Set<List<Object>> flagPairs = new HashSet<>();
+		Set<List<Object>> groupPairs = new HashSet<>();
+		Set<List<Integer>> firstPairs = new HashSet<>();
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		do {
+			Generator<Boolean> flag = Generator.of(true, false);
+			List<Generator<Integer>> first = Context.group("first", () -> declareDigits("first", 4));
+			List<Generator<Integer>> second = Context.group("second", () -> declareDigits("second", 4));
+
+			List<Integer> firstRow = valuesOf(first);
+			List<Integer> secondRow = valuesOf(second);
+			firstRows.add(firstRow);
+			secondRows.add(secondRow);
+			flagPairs.add(Arrays.asList(flag.get(), firstRow));
+			groupPairs.add(Arrays.asList(firstRow, secondRow));
+			firstPairs.addAll(pairsOf(first));
+		}
+		while(Context.next());
+
+		// Each group's own plan covers every pair of its generators, and its rows are then paired with the values of
+		// the test's other generators and with the rows of the other groups.
+		assertEquals(6 * 16, firstPairs.size());
+		assertEquals(2 * firstRows.size(), flagPairs.size());
+		assertEquals(firstRows.size() * secondRows.size(), groupPairs.size());
+	}
+
+	@Test
+	public void testChangingGroupsIsInconsistent() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Context.group("first", () -> declareDigits("digit", 2)).get(0).get();
+
+		try {
+			assertTrue(Context.next());
+			List<Generator<Integer>> digits = Context.group("first", () -> declareDigits("digit", 1));
+			digits.add(Generator.named("digit1").of(1, 2, 3, 4));
+			digits.get(0).get();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			assertTrue(e.getMessage().contains("different than those declared for the first iteration"));
+		}
+	}
+
+	@Test
+	public void testNestedGroups() {
+		Set<List<Integer>> innerPairs = new HashSet<>();
+		Set<Integer> outerValues = new HashSet<>();
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		do {
+			List<Generator<Integer>> generators = Context.group("outer", () -> {
+				List<Generator<Integer>> inner = Context.group("inner", () -> declareDigits("inner", 3));
+				inner.add(Generator.of(1, 2, 3, 4, 5, 6, 7, 8, 9));
+				return inner;
+			});
+
+			innerPairs.addAll(pairsOf(generators.subList(0, 3)));
+			outerValues.add(generators.get(3).get());
+		}
+		while(Context.next());
+
+		assertEquals(3 * 16, innerPairs.size());
+		assertEquals(9, outerValues.size());
+	}
+
+	@Test
+	public void testReadingGeneratorWithinGroup() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Generator<Integer> outside = Generator.of(1, 2);
+
+		try {
+			Context.group("group", () -> outside.get());
+			fail();
+		}
+		catch(IllegalStateException e) {
+			assertTrue(e.getMessage().contains("while a group is being declared"));
+		}
+	}
+
+	@Test
+	public void testGroupsChangeFingerprint() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		declareDigits("digit", 2).get(0).get();
+		long flat = Context.plan().fingerprint;
+		Context.cleanUp();
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+		Context.group("digits", () -> declareDigits("digit", 2)).get(0).get();
+		assertNotEquals(flat, Context.plan().fingerprint);
+	}
+
+	private static List<Generator<Integer>> declareDigits(String name, int count) {
+		List<Generator<Integer>> generators = new ArrayList<>();
+		for(int i = 0; i < count; i++)
+			generators.add(Generator.named(name + i).of(1, 2, 3, 4));
+		return generators;
+	}
+
+	private static List<Integer> valuesOf(List<Generator<Integer>> generators) {
+		List<Integer> values = new ArrayList<>();
+		for(Generator<Integer> generator : generators)
+			values.add(generator.get());
+		return values;
+	}
+
+	private static Set<List<Integer>> pairsOf(List<Generator<Integer>> generators) {
+		Set<List<Integer>> pairs = new HashSet<>();
+		for(int i = 0; i < generators.size() - 1; i++)
+			for(int j = i + 1; j < generators.size(); j++)
+				pairs.add(Arrays.asList(i, j, generators.get(i).get(), generators.get(j).get()));
+		return pairs;
+	}
+
+	@Test
+	@Ignore("Benchmark; run it on its own to time repeated generator reads.")
+	public void benchmark() {
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0);
+
+		Generator<Integer> generator = Generator.of(1, 2, 3);
+		generator.get();
+
+		int reads = 10_000_000;
+		long sum = 0;
+		long start = System.nanoTime();
+
+		for(int i = 0; i < reads; i++) {
+			sum += generator.get();
+		}
+
+		double avgTime = (System.nanoTime() - start) / (double)reads;
+
+		System.out.println(String.format("Average Generator.get() time: %.2fns", avgTime));
+		System.out.println();
+
+		assertEquals(reads * (long)generator.get(), sum);
+	}
+
 }
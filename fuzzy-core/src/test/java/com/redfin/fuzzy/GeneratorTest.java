@@ -5,13 +5,17 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class GeneratorTest {
 
@@ -64,6 +68,118 @@ public class GeneratorTest {
 		assertEquals(FuzzyUtil.setOf(1, 2, 3), actuals);
 	}
 
+	@Test
+	public void testDependingOn() {
+		int iterations = 0;
+		do {
+			iterations++;
+			Generator<Integer> size = Generator.of(1, 2, 5);
+			Generator<Integer> index = Generator.dependingOn(size, n -> Any.integer().inRange(0, n));
+
+			assertTrue(index.get() >= 0 && index.get() <= size.get());
+		}
+		while(Context.next());
+
+		// The dependent generator adds no iterations of its own.
+		assertEquals(3, iterations);
+	}
+
+	@Test
+	public void testDependingOnRotatesThroughDerivedSubcases() {
+		Set<Integer> actuals = new HashSet<>();
+		do {
+			Generator<Integer> magnitude = Generator.of(10, 20);
+			Generator<Boolean> other = Generator.of(true, false);
+			Generator<Integer> signed = Generator.named("signed").dependingOn(magnitude, m -> Any.of(m, -m));
+
+			other.get();
+			actuals.add(signed.get());
+		}
+		while(Context.next());
+
+		assertEquals(FuzzyUtil.setOf(10, -10, 20, -20), actuals);
+	}
+
+	@Test
+	public void testDependingOnDerivesCaseOncePerSourceValue() {
+		AtomicInteger derivations = new AtomicInteger();
+		int iterations = 0;
+		do {
+			iterations++;
+			Generator<Integer> size = Generator.of(4);
+			Generator<Boolean> other = Generator.of(true, false, null);
+			Generator<Integer> index = Generator.dependingOn(size, n -> {
+				derivations.incrementAndGet();
+				return Any.integer().inRange(0, n);
+			});
+
+			other.get();
+			assertTrue(index.get() >= 0 && index.get() <= 4);
+		}
+		while(Context.next());
+
+		assertEquals(3, iterations);
+		assertEquals(1, derivations.get());
+	}
+
+	@Test
+	public void testDefaultNameIsCreationSite() {
+		Set<String> names = new HashSet<>();
+		List<StackTraceElement> creationSite = null;
+
+		do {
+			Generator<Integer> ints = Generator.of(1, 2, 3);
+			names.add(ints.getName());
+			creationSite = ints.getCreationSite();
+			ints.get();
+		}
+		while(Context.next());
+
+		assertEquals(1, names.size());
+		assertTrue(names.iterator().next().startsWith("at " + getClass().getName() + ".testDefaultNameIsCreationSite("));
+		assertEquals(getClass().getName(), creationSite.get(0).getClassName());
+	}
+
+	@Test
+	public void testNamedGeneratorKeepsCreationSite() {
+		List<StackTraceElement> creationSite;
+
+		do {
+			Generator<Integer> ints = Generator.named("ints").of(1, 2, 3);
+			creationSite = ints.getCreationSite();
+			ints.get();
+		}
+		while(Context.next());
+
+		assertFalse(creationSite.isEmpty());
+		assertEquals("testNamedGeneratorKeepsCreationSite", creationSite.get(0).getMethodName());
+	}
+
+	@Test
+	public void testUnknownGeneratorsHaveIdentity() {
+		Generator<Integer> first = Generator.of(1, 2);
+		first.get();
+		assertTrue(Context.next());
+
+		Generator<Integer> same = Generator.of(1, 2);
+		Generator<Integer> extra = Generator.of(3, 4);
+		Generator<Integer> another = Generator.of(5, 6);
+
+		// The extra generators have no counterpart in the first iteration, so nothing is known about them yet.
+		assertTrue(extra.getName().contains("unknown location"));
+		assertEquals(extra, extra);
+		assertFalse(extra.equals(another));
+		assertFalse(same.equals(extra));
+		assertEquals(System.identityHashCode(extra), extra.hashCode());
+		assertEquals(0, extra.compareTo(extra));
+		assertEquals(-extra.compareTo(another), another.compareTo(extra));
+		assertTrue(same.compareTo(extra) < 0);
+		assertTrue(extra.compareTo(same) > 0);
+
+		Set<Generator<Integer>> generators = new HashSet<>(Arrays.asList(same, extra, another));
+		assertEquals(3, generators.size());
+	}
+
 	@Test
 	public void testCompareTo() {
 		Generator<Integer> a = Generator.named("a").of(1);
@@ -0,0 +1,167 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class IterationCoordinatorTest {
+
+	@Test
+	public void testFirstToJoinStartsCoordinator() throws IOException {
+		int port = freePort();
+		try(
+			IterationCoordinator first = IterationCoordinator.join(port);
+			IterationCoordinator second = IterationCoordinator.join(port)
+		) {
+			assertTrue(first.isCoordinator());
+			assertFalse(second.isCoordinator());
+		}
+	}
+
+	@Test
+	public void testSelectorsClaimDistinctIterations() throws IOException {
+		int port = freePort();
+		try(
+			IterationCoordinator first = IterationCoordinator.join(port);
+			IterationCoordinator second = IterationCoordinator.join(port)
+		) {
+			IterationSelector a = first.selector("test");
+			IterationSelector b = second.selector("test");
+			IterationSelector other = second.selector("other test");
+
+			assertEquals(0, a.nextSelected(0));
+			assertEquals(0, b.nextSelected(0));
+			assertTrue(a.claim(0));
+			assertFalse(b.claim(0));
+			assertEquals(1, b.nextSelected(0));
+			assertEquals(1, a.nextSelected(1));
+			assertTrue(b.claim(1));
+			assertEquals(2, a.nextSelected(0));
+			assertTrue(b.claim(10));
+			assertEquals(11, a.nextSelected(10));
+			assertEquals(0, other.nextSelected(0));
+		}
+	}
+
+	@Test
+	public void testProcessesShareIterations() throws Exception {
+		assertEveryIterationRunsOnce(coordinator -> coordinator.selector("shared"), Collections.emptyList());
+	}
+
+	@Test
+	public void testLookingForPrioritizedIterationsDoesNotClaimThem() throws Exception {
+		List<IterationSignature> signatures = new ArrayList<>();
+		try(ContextHandle context = ContextHandle.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 0)) {
+			do {
+				read(context);
+				if(context.iterationIndex() % 5 == 3)
+					signatures.add(context.signature());
+			}
+			while(context.next());
+		}
+
+		assertEveryIterationRunsOnce(coordinator -> coordinator.selector("shared"), signatures);
+	}
+
+	@Test
+	public void testShardsOfCoordinatedProcessesDoNotClaimEachOthersIterations() throws Exception {
+		int[] shards = new int[1];
+		assertEveryIterationRunsOnce(
+			coordinator -> IterationSelector.shard(shards[0]++ % 2, 2).and(coordinator.selector("shared")),
+			Collections.emptyList()
+		);
+	}
+
+	private static void assertEveryIterationRunsOnce(
+		Function<IterationCoordinator, IterationSelector> selectors,
+		List<IterationSignature> prioritized
+	) throws Exception {
+		List<Integer> all = iterations(IterationSelector.ALL, Collections.emptyList());
+
+		int port = freePort();
+		ExecutorService pool = Executors.newFixedThreadPool(3);
+		try {
+			List<IterationCoordinator> coordinators = new ArrayList<>();
+			List<Future<List<Integer>>> workers = new ArrayList<>();
+			for(int i = 0; i < 3; i++) {
+				IterationCoordinator coordinator = IterationCoordinator.join(port);
+				coordinators.add(coordinator);
+				IterationSelector selector = selectors.apply(coordinator);
+				workers.add(pool.submit(() -> iterations(selector, prioritized)));
+			}
+
+			List<Integer> claimed = new ArrayList<>();
+			for(Future<List<Integer>> worker : workers)
+				claimed.addAll(worker.get());
+			for(IterationCoordinator coordinator : coordinators)
+				coordinator.close();
+
+			Collections.sort(claimed);
+			assertEquals(all, claimed);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testRunsLocallyWhenCoordinatorIsGone() throws Exception {
+		int port = freePort();
+		IterationCoordinator coordinator = IterationCoordinator.join(port);
+		IterationCoordinator worker = IterationCoordinator.join(port);
+		IterationSelector selector = worker.selector("test");
+		assertEquals(0, selector.nextSelected(0));
+
+		coordinator.close();
+		Set<Integer> selected = new HashSet<>();
+		for(int i = 1; i < 4; i++)
+			selected.add(selector.nextSelected(i));
+		worker.close();
+
+		assertEquals(FuzzyUtil.setOf(1, 2, 3), selected);
+	}
+
+	private static List<Integer> iterations(IterationSelector selector, List<IterationSignature> prioritized) {
+		List<Integer> indices = new ArrayList<>();
+		CaseCompositionMode mode = CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES;
+		try(ContextHandle context = ContextHandle.init(mode, 0, selector)) {
+			context.prioritize(prioritized);
+			do {
+				read(context);
+				indices.add(context.iterationIndex());
+			}
+			while(context.next());
+		}
+		catch(IterationNotSelectedException e) {
+			// Other processes claimed every iteration.
+		}
+		return indices;
+	}
+
+	private static void read(ContextHandle context) {
+		Generator<Integer> a = context.generator(1, 2, 3, 4);
+		Generator<Integer> b = context.generator(1, 2, 3, 4);
+		a.get();
+		b.get();
+	}
+
+	private static int freePort() throws IOException {
+		try(ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+}
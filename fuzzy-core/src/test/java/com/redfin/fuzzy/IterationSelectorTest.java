@@ -0,0 +1,127 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class IterationSelectorTest {
+
+	@Test
+	public void testAll() {
+		assertEquals(0, IterationSelector.ALL.nextSelected(0));
+		assertEquals(812, IterationSelector.ALL.nextSelected(812));
+	}
+
+	@Test
+	public void testOf() {
+		IterationSelector subject = IterationSelector.of(7, 3);
+
+		assertEquals(3, subject.nextSelected(0));
+		assertEquals(3, subject.nextSelected(3));
+		assertEquals(7, subject.nextSelected(4));
+		assertEquals(-1, subject.nextSelected(8));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOfNegative() {
+		IterationSelector.of(-1);
+	}
+
+	@Test
+	public void testParse() {
+		IterationSelector subject = IterationSelector.parse(" 812, 3,10-12 ");
+
+		assertEquals(3, subject.nextSelected(0));
+		assertEquals(10, subject.nextSelected(4));
+		assertEquals(12, subject.nextSelected(12));
+		assertEquals(812, subject.nextSelected(13));
+		assertEquals(-1, subject.nextSelected(813));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseInvalid() {
+		IterationSelector.parse("12-a");
+	}
+
+	@Test
+	public void testParseBackwardsRange() {
+		try {
+			IterationSelector.parse("12-10");
+			fail();
+		}
+		catch(IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("\"12-10\": it ends at 10, before its start at 12"));
+		}
+	}
+
+	@Test
+	public void testParseFullRange() {
+		IterationSelector subject = IterationSelector.parse("0-2147483647");
+
+		assertEquals(0, subject.nextSelected(0));
+		assertEquals(812, subject.nextSelected(812));
+		assertEquals(Integer.MAX_VALUE, subject.nextSelected(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testParseHugeRanges() {
+		IterationSelector subject = IterationSelector.parse("1000000000-2000000000, 5, 0-500000000, 400000000-600000000");
+
+		assertEquals(0, subject.nextSelected(0));
+		assertEquals(600000000, subject.nextSelected(600000000));
+		assertEquals(1000000000, subject.nextSelected(600000001));
+		assertEquals(2000000000, subject.nextSelected(2000000000));
+		assertEquals(-1, subject.nextSelected(2000000001));
+		assertEquals("iterations 0-600000000,1000000000-2000000000", subject.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseEmpty() {
+		IterationSelector.parse(" , ");
+	}
+
+	@Test
+	public void testShard() {
+		IterationSelector subject = IterationSelector.shard(1, 3);
+
+		assertEquals(1, subject.nextSelected(0));
+		assertEquals(1, subject.nextSelected(1));
+		assertEquals(4, subject.nextSelected(2));
+		assertEquals(4, subject.nextSelected(4));
+		assertEquals(7, subject.nextSelected(5));
+	}
+
+	@Test
+	public void testShardsCoverEveryIterationOnce() {
+		int shardCount = 4;
+		int[] coverage = new int[50];
+		for(int shard = 0; shard < shardCount; shard++) {
+			IterationSelector subject = IterationSelector.shard(shard, shardCount);
+			for(int i = subject.nextSelected(0); i >= 0 && i < coverage.length; i = subject.nextSelected(i + 1)) {
+				coverage[i]++;
+			}
+		}
+
+		for(int c : coverage) {
+			assertEquals(1, c);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testShardIndexOutOfRange() {
+		IterationSelector.shard(3, 3);
+	}
+
+	@Test
+	public void testAnd() {
+		IterationSelector subject = IterationSelector.shard(0, 2).and(IterationSelector.parse("3-7"));
+
+		assertEquals(4, subject.nextSelected(0));
+		assertEquals(6, subject.nextSelected(5));
+		assertEquals(-1, subject.nextSelected(7));
+		assertTrue(subject.toString().contains("shard 0 of 2"));
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IterationSignatureTest {
+
+	@Test
+	public void testParseRoundTrip() {
+		IterationSignature subject = new IterationSignature(0xFEDCBA9876543210L, new int[] { 3, 0, 12 });
+
+		assertEquals("fedcba9876543210:3,0,12", subject.toString());
+		assertEquals(subject, IterationSignature.parse(subject.toString()));
+		assertEquals(subject.hashCode(), IterationSignature.parse(subject.toString()).hashCode());
+	}
+
+	@Test
+	public void testParseWithoutGenerators() {
+		assertEquals(new IterationSignature(7, new int[0]), IterationSignature.parse("7:"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseRejectsMissingIndices() {
+		IterationSignature.parse("fedcba98");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseRejectsNegativeIndices() {
+		IterationSignature.parse("fedcba98:1,-2");
+	}
+
+	@Test
+	public void testHasSameGeneratorsAs() {
+		IterationSignature subject = IterationSignature.parse("1f:0,1");
+
+		assertTrue(subject.hasSameGeneratorsAs(IterationSignature.parse("1f:2,2")));
+		assertFalse(subject.hasSameGeneratorsAs(IterationSignature.parse("2f:0,1")));
+		assertFalse(subject.hasSameGeneratorsAs(IterationSignature.parse("1f:0,1,0")));
+	}
+
+}
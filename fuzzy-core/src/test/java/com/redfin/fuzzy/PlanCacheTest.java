@@ -0,0 +1,175 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.redfin.fuzzy.pairwise.InParameterOrder;
+import com.redfin.fuzzy.pairwise.Pairwise;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class PlanCacheTest {
+
+	@Test
+	public void testRowsMatchPairwise() {
+		PlanCache subject = new PlanCache(1024, null);
+
+		List<List<Object>> expected = new Pairwise<>(Arrays.asList(
+			Arrays.asList(0, 1, 2, 3, 4),
+			Arrays.asList(0, 1, 2, 3, 4, 5, 6),
+			Arrays.asList(0, 1, 2)
+		)).generate();
+
+		assertEquals(expected, toLists(subject.pairwise(new int[] { 5, 7, 3 })));
+	}
+
+	@Test
+	public void testCachesCompletePlansInMemory() {
+		PlanCache subject = new PlanCache(1024, null);
+
+		int[] first = drain(subject.pairwise(new int[] { 3, 3 })).get(0);
+		int[] second = subject.pairwise(new int[] { 3, 3 }).next();
+
+		assertSame(first, second);
+	}
+
+	@Test
+	public void testDoesNotCacheIncompletePlans() {
+		PlanCache subject = new PlanCache(1024, null);
+
+		int[] first = subject.pairwise(new int[] { 3, 3 }).next();
+		int[] second = subject.pairwise(new int[] { 3, 3 }).next();
+
+		assertNotSame(first, second);
+		assertArrayEquals(first, second);
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsedPlans() {
+		// The plans weigh 9 * 3 and 4 * 3 cells, so they do not fit together.
+		PlanCache subject = new PlanCache(30, null);
+
+		int[] first = drain(subject.pairwise(new int[] { 3, 3 })).get(0);
+		int[] second = drain(subject.pairwise(new int[] { 2, 2 })).get(0);
+
+		assertNotSame(first, subject.pairwise(new int[] { 3, 3 }).next());
+		assertSame(second, subject.pairwise(new int[] { 2, 2 }).next());
+	}
+
+	@Test
+	public void testDoesNotCachePlansLargerThanTheCache() {
+		PlanCache subject = new PlanCache(20, null);
+
+		int[] first = drain(subject.pairwise(new int[] { 3, 3 })).get(0);
+		int[] pairwise = drain(subject.inParameterOrder(new int[] { 3, 3 })).get(0);
+
+		assertNotSame(first, subject.pairwise(new int[] { 3, 3 }).next());
+		assertNotSame(pairwise, subject.inParameterOrder(new int[] { 3, 3 }).next());
+	}
+
+	@Test
+	public void testPersistsPlansToDisk() throws IOException {
+		Path directory = Files.createTempDirectory("fuzzy-plans");
+		try {
+			List<int[]> computed = drain(new PlanCache(1024, directory).pairwise(new int[] { 5, 7, 3 }));
+			assertTrue(Files.isRegularFile(directory.resolve("pairwise-5x7x3.plan")));
+
+			List<int[]> loaded = drain(new PlanCache(1024, directory).pairwise(new int[] { 5, 7, 3 }));
+			assertEquals(toLists(computed.iterator()), toLists(loaded.iterator()));
+		}
+		finally {
+			deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void testRemovingRedundantRowsIsCachedSeparately() throws IOException {
+		Path directory = Files.createTempDirectory("fuzzy-plans");
+		try {
+			PlanCache.Rows all = new PlanCache(1024, directory).pairwise(new int[] { 6, 5, 4, 3, 2 });
+			List<int[]> allRows = drain(all);
+
+			PlanCache.Rows reduced = new PlanCache(1024, directory).pairwise(new int[] { 6, 5, 4, 3, 2 }, true);
+			List<int[]> reducedRows = drain(reduced);
+
+			assertTrue(reducedRows.size() < allRows.size());
+			assertTrue(reduced.removedCount() > all.removedCount());
+			assertTrue(Files.isRegularFile(directory.resolve("pairwise-reduced-6x5x4x3x2.plan")));
+
+			PlanCache.Rows loaded = new PlanCache(1024, directory).pairwise(new int[] { 6, 5, 4, 3, 2 }, true);
+			assertEquals(toLists(reducedRows.iterator()), toLists(loaded));
+			assertEquals(reduced.removedCount(), loaded.removedCount());
+		}
+		finally {
+			deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void testInParameterOrderPlansAreCachedSeparately() throws IOException {
+		Path directory = Files.createTempDirectory("fuzzy-plans");
+		try {
+			List<int[]> pairwise = drain(new PlanCache(1024, directory).pairwise(new int[] { 6, 5, 4, 3, 2 }));
+			List<int[]> computed = drain(new PlanCache(1024, directory).inParameterOrder(new int[] { 6, 5, 4, 3, 2 }));
+
+			assertEquals(
+				toLists(new InParameterOrder(new int[] { 6, 5, 4, 3, 2 }).generate().iterator()),
+				toLists(computed.iterator())
+			);
+			assertTrue(computed.size() < pairwise.size());
+			assertTrue(Files.isRegularFile(directory.resolve("ipog-6x5x4x3x2.plan")));
+
+			List<int[]> loaded = drain(new PlanCache(1024, directory).inParameterOrder(new int[] { 6, 5, 4, 3, 2 }));
+			assertEquals(toLists(computed.iterator()), toLists(loaded.iterator()));
+		}
+		finally {
+			deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void testIgnoresCorruptFiles() throws IOException {
+		Path directory = Files.createTempDirectory("fuzzy-plans");
+		try {
+			Files.write(directory.resolve("pairwise-3x3.plan"), new byte[] { 1, 2, 3 });
+
+			List<int[]> rows = drain(new PlanCache(1024, directory).pairwise(new int[] { 3, 3 }));
+			assertEquals(9, rows.size());
+		}
+		finally {
+			deleteRecursively(directory);
+		}
+	}
+
+	private static List<int[]> drain(Iterator<int[]> rows) {
+		List<int[]> res = new ArrayList<>();
+		rows.forEachRemaining(res::add);
+		return res;
+	}
+
+	private static List<List<Object>> toLists(Iterator<int[]> rows) {
+		return drain(rows).stream()
+			.map(row -> Arrays.stream(row).boxed().collect(Collectors.<Object>toList()))
+			.collect(Collectors.toList());
+	}
+
+	private static void deleteRecursively(Path directory) throws IOException {
+		try(Stream<Path> files = Files.list(directory)) {
+			for(Path file : files.collect(Collectors.toList()))
+				Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+
+}
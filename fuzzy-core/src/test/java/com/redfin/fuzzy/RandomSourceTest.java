@@ -0,0 +1,189 @@
+package com.redfin.fuzzy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class RandomSourceTest {
+
+	private static final List<RandomSource.Factory> FACTORIES = Arrays.asList(
+		RandomSource.Factory.SPLITTABLE_RANDOM,
+		RandomSource.Factory.XOROSHIRO_128_PLUS_PLUS,
+		RandomSource.Factory.JAVA_UTIL_RANDOM
+	);
+
+	@After
+	public void cleanUp() {
+		Context.cleanUp();
+	}
+
+	@Test
+	public void testSourcesAreDeterministic() {
+		for(RandomSource.Factory factory : FACTORIES) {
+			RandomSource a = factory.create(42);
+			RandomSource b = factory.create(42);
+			RandomSource c = factory.create(43);
+
+			long first = a.nextLong();
+			assertEquals(first, b.nextLong());
+			assertNotEquals(first, c.nextLong());
+			assertNotEquals(first, a.nextLong());
+		}
+	}
+
+	@Test
+	public void testJavaUtilRandomMatchesRandom() {
+		Random expected = new Random(1234);
+		Random actual = RandomSource.Factory.JAVA_UTIL_RANDOM.createRandom(1234);
+
+		for(int i = 0; i < 10; i++)
+			assertEquals(expected.nextInt(100), actual.nextInt(100));
+	}
+
+	@Test
+	public void testAdapterRespectsBounds() {
+		Random subject = RandomSource.Factory.XOROSHIRO_128_PLUS_PLUS.createRandom(7);
+
+		boolean[] seen = new boolean[10];
+		for(int i = 0; i < 1000; i++) {
+			seen[subject.nextInt(10)] = true;
+
+			double d = subject.nextDouble();
+			assertTrue(d >= 0 && d < 1);
+
+			float f = subject.nextFloat();
+			assertTrue(f >= 0 && f < 1);
+		}
+
+		for(boolean s : seen)
+			assertTrue(s);
+	}
+
+	@Test
+	public void testAdapterFillsOddLengthByteArrays() {
+		Random subject = RandomSource.Factory.SPLITTABLE_RANDOM.createRandom(7);
+
+		byte[] bytes = new byte[11];
+		subject.nextBytes(bytes);
+
+		int zeroes = 0;
+		for(byte b : bytes)
+			if(b == 0) zeroes++;
+
+		assertTrue(zeroes < 4);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAdapterCannotBeReseeded() {
+		RandomSource.Factory.SPLITTABLE_RANDOM.createRandom(7).setSeed(8);
+	}
+
+	@Test
+	public void testContextUsesConfiguredSource() {
+		List<Integer> splittable = generate(RandomSource.Factory.SPLITTABLE_RANDOM);
+		List<Integer> xoroshiro = generate(RandomSource.Factory.XOROSHIRO_128_PLUS_PLUS);
+
+		assertEquals(splittable, generate(RandomSource.Factory.SPLITTABLE_RANDOM));
+		assertEquals(xoroshiro, generate(RandomSource.Factory.XOROSHIRO_128_PLUS_PLUS));
+		assertNotEquals(splittable, xoroshiro);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testContextRequiresSource() {
+		Context.init(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE, 0, IterationSelector.ALL, null);
+	}
+
+	private static List<Integer> generate(RandomSource.Factory factory) {
+		List<Integer> values = new ArrayList<>();
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 99, IterationSelector.ALL, factory);
+		try {
+			do {
+				Generator<Integer> a = Generator.of(Any.integer());
+				Generator<Integer> b = Generator.of(Any.integer());
+				values.add(a.get());
+				values.add(b.get());
+			}
+			while(Context.next());
+		}
+		finally {
+			Context.cleanUp();
+		}
+
+		return values;
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCasesGenerateDeterministicallyFromEverySource() {
+		List<Case<?>> cases = Arrays.asList(Any.integer(), Any.string(), Any.listOf(Any.integer()));
+
+		for(Case<?> c : cases) {
+			Set<Subcase<Object>> subcases = (Set<Subcase<Object>>) (Set<?>) c.getSubcases();
+			for(RandomSource.Factory factory : FACTORIES) {
+				for(int seed = 0; seed < 100; seed++) {
+					// Each generated value gets a fresh source, as it does in a test.
+					for(Subcase<Object> subcase : subcases) {
+						assertEquals(
+							subcase.generate(factory.createRandom(seed)),
+							subcase.generate(factory.createRandom(seed))
+						);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	@Ignore("Benchmark; run it on its own to compare the random sources.")
+	public void benchmark() {
+		List<Case<?>> cases = Arrays.asList(Any.integer(), Any.string(), Any.listOf(Any.integer()));
+		String[] names = { "NumericCase", "StringCase", "CollectionCase" };
+		String[] factoryNames = { "SplittableRandom", "xoroshiro128++", "java.util.Random" };
+
+		// The first round only warms up the JIT.
+		for(Case<?> c : cases)
+			for(RandomSource.Factory factory : FACTORIES)
+				timePerValue(c, factory);
+
+		StringBuilder report = new StringBuilder("Nanoseconds per value:");
+		for(int c = 0; c < cases.size(); c++) {
+			report.append(String.format("%n%s:", names[c]));
+			for(int f = 0; f < FACTORIES.size(); f++) {
+				double time = timePerValue(cases.get(c), FACTORIES.get(f));
+				report.append(String.format(" %s %.1f", factoryNames[f], time));
+			}
+		}
+
+		System.out.println(report);
+		System.out.println();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static double timePerValue(Case<?> c, RandomSource.Factory factory) {
+		Set<Subcase<Object>> subcases = (Set<Subcase<Object>>) (Set<?>) c.getSubcases();
+		int iterations = 20_000;
+		int sink = 0;
+
+		long start = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			// Each generated value gets a fresh source, as it does in a test.
+			for(Subcase<Object> subcase : subcases)
+				sink += System.identityHashCode(subcase.generate(factory.createRandom(i)));
+		}
+		long elapsed = System.nanoTime() - start;
+
+		assertNotEquals(-1, sink); // Keeps the generated values from being optimized away.
+		return elapsed / (double) (iterations * subcases.size());
+	}
+
+}
@@ -1,10 +1,138 @@
 package com.redfin.fuzzy;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
 import org.junit.Test;
 
 public class SubcasesTest {
 
+	@After
+	public void cleanUp() {
+		Context.cleanUp();
+	}
+
 	@Test
 	public void testConstructorForCoverage() { new Subcases(); }
 
+	@Test
+	public void testCacheableIsIdempotent() {
+		Subcase<Integer> subcase = Subcases.cacheable(r -> 1);
+		assertSame(subcase, Subcases.cacheable(subcase));
+	}
+
+	@Test
+	public void testCacheableValuesAreGeneratedOncePerSubcase() {
+		AtomicInteger generated = new AtomicInteger();
+		Case<Map<Integer, Integer>> fixtures = Cases.of(
+			(Subcase<Map<Integer, Integer>>) r -> { generated.incrementAndGet(); return fixture(r.nextInt(), 10_000); },
+			r -> { generated.incrementAndGet(); return fixture(r.nextInt(), 10); }
+		).cacheable();
+
+		Set<Map<Integer, Integer>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+		int iterations = 0;
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 3);
+		do {
+			Generator<Map<Integer, Integer>> fixture = Generator.of(fixtures);
+			Generator<Integer> a = Generator.of(1, 2, 3);
+			Generator<Boolean> b = Generator.of(true, false);
+
+			a.get();
+			b.get();
+			distinct.add(fixture.get());
+			iterations++;
+		}
+		while(Context.next());
+
+		assertTrue(iterations >= 6);
+		assertEquals(2, generated.get());
+		assertEquals(2, distinct.size());
+	}
+
+	@Test
+	public void testCacheableValuesAreDeterministic() {
+		assertEquals(cacheableValues(), cacheableValues());
+	}
+
+	private static List<Integer> cacheableValues() {
+		List<Integer> values = new ArrayList<>();
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 5);
+		try {
+			do {
+				Generator<Integer> cached = Generator.of(Any.integer().cacheable());
+				Generator<Integer> other = Generator.of(Any.integer());
+				values.add(cached.get());
+				values.add(other.get());
+			}
+			while(Context.next());
+		}
+		finally {
+			Context.cleanUp();
+		}
+
+		return values;
+	}
+
+	@Test
+	public void testUncachedValuesAreRegenerated() {
+		Set<Object> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, 3);
+		do {
+			Generator<Object> fixture = Generator.of((Subcase<Object>) r -> new Object());
+			Generator<Integer> a = Generator.of(1, 2, 3);
+
+			a.get();
+			distinct.add(fixture.get());
+		}
+		while(Context.next());
+
+		assertEquals(3, distinct.size());
+	}
+
+	@Test
+	public void testValueCacheEvictsLeastRecentlyUsed() {
+		ValueCache cache = new ValueCache(25);
+		Object first = cache.get(0, 0, () -> fixture(0, 10));
+		Object second = cache.get(0, 1, () -> fixture(1, 10));
+
+		// Reading the first value makes the second the least recently used.
+		assertSame(first, cache.get(0, 0, () -> fixture(0, 10)));
+		cache.get(0, 2, () -> fixture(2, 10));
+
+		assertEquals(2, cache.size());
+		assertSame(first, cache.get(0, 0, () -> fixture(0, 10)));
+		assertNotSame(second, cache.get(0, 1, () -> fixture(1, 10)));
+	}
+
+	@Test
+	public void testValueCacheSkipsOversizedValues() {
+		ValueCache cache = new ValueCache(5);
+		Object value = cache.get(0, 0, () -> fixture(0, 10));
+
+		assertEquals(0, cache.size());
+		assertNotSame(value, cache.get(0, 0, () -> fixture(0, 10)));
+		assertEquals(null, cache.get(1, 0, () -> null));
+		assertEquals(1, cache.size());
+	}
+
+	private static Map<Integer, Integer> fixture(int seed, int size) {
+		Map<Integer, Integer> map = new HashMap<>();
+		for(int i = 0; i < size; i++) map.put(i, seed + i);
+		return Collections.unmodifiableMap(map);
+	}
+
 }
@@ -0,0 +1,38 @@
+package com.redfin.fuzzy.cases;
+
+import static org.junit.Assert.assertEquals;
+
+import com.redfin.fuzzy.Any;
+import com.redfin.fuzzy.CaseCompositionMode;
+import com.redfin.fuzzy.Context;
+import com.redfin.fuzzy.Generator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class UnionCaseTest {
+
+	@Test
+	public void testUnionOfNullableCases() {
+		// Both nullable cases share their null subcase, which the union only holds once.
+		UnionCase<Integer> subject = new UnionCase<>(
+			Any.nullableOf(Any.of(1)),
+			Any.nullableOf(Any.of(2, 3))
+		);
+		assertEquals(4, subject.getSubcases().size());
+		assertEquals(4, subject.getSubcaseCount());
+
+		List<Integer> actual = new ArrayList<>();
+		Context.init(CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES, getClass().getName().hashCode());
+		do {
+			Generator<Integer> value = Generator.of(subject);
+			actual.add(value.get());
+		}
+		while(Context.next());
+		Context.cleanUp();
+
+		assertEquals(Arrays.asList(1, null, 2, 3), actual);
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class InParameterOrderTest {
+
+	@Test
+	public void testSingleParameter() {
+		List<int[]> testCases = new InParameterOrder(new int[] { 3 }).generate();
+
+		assertEquals(3, testCases.size());
+		for(int i = 0; i < 3; i++)
+			assertTrue(Arrays.equals(new int[] { i }, testCases.get(i)));
+	}
+
+	@Test
+	public void testTwoParametersAreFullyCrossed() {
+		List<int[]> testCases = new InParameterOrder(new int[] { 2, 3 }).generate();
+
+		assertEquals(6, testCases.size());
+		assertCoversAllPairs(new int[] { 2, 3 }, testCases);
+	}
+
+	@Test
+	public void testCoversAllPairs() {
+		int[][] shapes = {
+			{ 1, 1, 1 },
+			{ 2, 2, 2 },
+			{ 3, 3, 3, 3 },
+			{ 1, 4, 2, 7, 3 },
+			{ 5, 5, 5, 5, 5, 5, 5, 5, 5, 5 },
+			{ 2, 20, 3, 11, 17, 5, 8, 2, 13, 4 }
+		};
+
+		for(int[] shape : shapes)
+			assertCoversAllPairs(shape, new InParameterOrder(shape).generate());
+	}
+
+	@Test
+	public void testSizes() {
+		// The product of the two largest parameters is a lower bound for every pairwise plan.
+		assertEquals(4, new InParameterOrder(new int[] { 2, 2, 2 }).generate().size());
+		assertEquals(340, new InParameterOrder(new int[] { 2, 20, 3, 11, 17, 5, 8, 2, 13, 4 }).generate().size());
+		assertTrue(new InParameterOrder(new int[] { 3, 3, 3, 3 }).generate().size() <= 12);
+		assertTrue(new InParameterOrder(new int[] { 5, 5, 5, 5, 5, 5, 5, 5, 5, 5 }).generate().size() <= 50);
+	}
+
+	@Test
+	public void testEveryTestCaseCoversANewPair() {
+		int[] shape = { 2, 20, 3, 11, 17, 5, 8, 2, 13, 4 };
+		Set<String> covered = new HashSet<>();
+
+		for(int[] testCase : new InParameterOrder(shape).generate())
+			assertTrue(covered.addAll(pairsOf(testCase)));
+	}
+
+	@Test
+	public void testDeterministic() {
+		int[] shape = { 4, 6, 2, 5, 3 };
+		List<int[]> a = new InParameterOrder(shape).generate();
+		List<int[]> b = new InParameterOrder(shape).generate();
+
+		assertEquals(a.size(), b.size());
+		for(int i = 0; i < a.size(); i++)
+			assertTrue(Arrays.equals(a.get(i), b.get(i)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoParameters() {
+		new InParameterOrder(new int[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParameterWithoutValues() {
+		new InParameterOrder(new int[] { 2, 0 });
+	}
+
+	@Test
+	public void testSmallerThanPairwise() {
+		int[][] shapes = {
+			{ 3, 3, 3, 3 },
+			{ 5, 5, 5, 5, 5, 5, 5, 5, 5, 5 },
+			{ 2, 20, 3, 11, 17, 5, 8, 2, 13, 4 }
+		};
+
+		for(int[] shape : shapes) {
+			List<List<Integer>> params = new ArrayList<>();
+			for(int count : shape) {
+				List<Integer> values = new ArrayList<>();
+				for(int i = 0; i < count; i++)
+					values.add(i);
+				params.add(values);
+			}
+
+			int greedy = new Pairwise<>(params).generate().size();
+			int ipog = new InParameterOrder(shape).generate().size();
+
+			assertTrue(Arrays.toString(shape), ipog <= greedy);
+		}
+	}
+
+	private static void assertCoversAllPairs(int[] shape, List<int[]> testCases) {
+		Set<String> expected = new HashSet<>();
+		for(int i = 0; i < shape.length - 1; i++)
+			for(int j = i + 1; j < shape.length; j++)
+				for(int a = 0; a < shape[i]; a++)
+					for(int b = 0; b < shape[j]; b++)
+						expected.add(i + "=" + a + "," + j + "=" + b);
+
+		Set<String> actual = new HashSet<>();
+		for(int[] testCase : testCases) {
+			assertEquals(shape.length, testCase.length);
+			for(int i = 0; i < shape.length; i++)
+				assertTrue(testCase[i] >= 0 && testCase[i] < shape[i]);
+			actual.addAll(pairsOf(testCase));
+		}
+
+		assertEquals(Arrays.toString(shape), expected, actual);
+	}
+
+	private static Set<String> pairsOf(int[] testCase) {
+		Set<String> pairs = new HashSet<>();
+		for(int i = 0; i < testCase.length - 1; i++)
+			for(int j = i + 1; j < testCase.length; j++)
+				pairs.add(i + "=" + testCase[i] + "," + j + "=" + testCase[j]);
+		return pairs;
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.redfin.fuzzy.pairwise;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PairSetTest {
+
+	private Param a;
+	private Param b;
+	private Param c;
+	private PairSet subject;
+
+	@Before
+	public void before() {
+		a = new Param(0, Arrays.asList("A", "B"));
+		b = new Param(1, Arrays.asList("d", "e", "f"));
+		c = new Param(2, Arrays.asList("1", "2"));
+		subject = new PairSet(Arrays.asList(a, b, c));
+	}
+
+	@Test
+	public void testHoldsEveryPair() {
+		assertEquals(2 * 3 + 2 * 2 + 3 * 2, subject.size());
+		assertEquals(16, subject.toSet().size());
+		assertTrue(subject.toSet().contains(new Pair(b.values.get(2), c.values.get(1))));
+	}
+
+	@Test
+	public void testConsumesPairsInOrder() {
+		List<String> consumed = new ArrayList<>();
+		Pair p;
+		while((p = subject.consume(a, b)) != null)
+			consumed.add("" + p.p1.value + p.p2.value);
+
+		assertEquals(Arrays.asList("Ad", "Ae", "Af", "Bd", "Be", "Bf"), consumed);
+		assertEquals(10, subject.size());
+		assertNull(subject.consume(b, a));
+	}
+
+	@Test
+	public void testParameterOrderDoesNotMatter() {
+		Pair p = subject.consume(c, a);
+
+		assertEquals("A", p.p1.value);
+		assertEquals("1", p.p2.value);
+		assertFalse(subject.remove(c.values.get(0), a.values.get(0)));
+	}
+
+	@Test
+	public void testRemove() {
+		assertTrue(subject.remove(b.values.get(1), a.values.get(0)));
+		assertFalse(subject.remove(a.values.get(0), b.values.get(1)));
+		assertEquals(15, subject.size());
+
+		Pair p1 = subject.consume(a, b);
+		Pair p2 = subject.consume(a, b);
+		assertEquals("Ad", "" + p1.p1.value + p1.p2.value);
+		assertEquals("Af", "" + p2.p1.value + p2.p2.value);
+	}
+
+	@Test
+	public void testEmpty() {
+		PairSet single = new PairSet(Arrays.asList(a));
+
+		assertTrue(single.isEmpty());
+		assertTrue(single.toSet().isEmpty());
+	}
+
+}
@@ -1,14 +1,18 @@
 package com.redfin.fuzzy.pairwise;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import com.redfin.fuzzy.FuzzyUtil;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
@@ -139,6 +143,98 @@ public class PairwiseTest {
 		assertEquals(expectedPairs, actualPairs);
 	}
 
+	@Test
+	public void testIteratorMatchesGenerate() {
+		List<Set<String>> params = Arrays.asList(
+			FuzzyUtil.setOf("A", "B", "C"),
+			FuzzyUtil.setOf("d", "e", "f", "g"),
+			FuzzyUtil.setOf("1", "2", "3")
+		);
+
+		Stack<List<Object>> expected = new Pairwise<>(params).generate();
+
+		List<List<Object>> actual = new ArrayList<>();
+		Iterator<List<Object>> i = new Pairwise<>(params).iterator();
+		while(i.hasNext()) actual.add(i.next());
+
+		assertEquals(expected, actual);
+		assertFalse(i.hasNext());
+	}
+
+	@Test
+	public void testDuplicateTestCasesAreRemoved() {
+		List<Set<Integer>> params = Arrays.asList(
+			FuzzyUtil.setOf(0, 1, 2),
+			FuzzyUtil.setOf(0, 1, 2),
+			FuzzyUtil.setOf(0, 1, 2)
+		);
+
+		Pairwise<Set<Integer>>.TestCaseIterator i = new Pairwise<>(params).iterator();
+		List<List<Object>> testCases = new ArrayList<>();
+		i.forEachRemaining(testCases::add);
+
+		assertEquals(testCases.size(), new HashSet<>(testCases).size());
+		assertTrue(i.getRemovedCount() > 0);
+		assertEquals(allPairs(params), coveredPairs(testCases));
+	}
+
+	@Test
+	public void testRedundantTestCasesAreRemoved() {
+		List<Set<Integer>> params = Arrays.asList(
+			FuzzyUtil.setOf(0, 1, 2, 3, 4, 5),
+			FuzzyUtil.setOf(0, 1, 2, 3, 4),
+			FuzzyUtil.setOf(0, 1, 2, 3),
+			FuzzyUtil.setOf(0, 1, 2),
+			FuzzyUtil.setOf(0, 1)
+		);
+
+		int withRedundant = new Pairwise<>(params).generate().size();
+
+		Pairwise<Set<Integer>>.TestCaseIterator i = new Pairwise<>(params, true).iterator();
+		List<List<Object>> testCases = new ArrayList<>();
+		Set<String> covered = new HashSet<>();
+		while(i.hasNext()) {
+			List<Object> testCase = i.next();
+			testCases.add(testCase);
+
+			// Every remaining test case covers at least one new pair.
+			assertTrue(covered.addAll(coveredPairs(Collections.singletonList(testCase))) || testCases.size() == 1);
+		}
+
+		assertTrue(testCases.size() < withRedundant);
+		assertEquals(allPairs(params), covered);
+	}
+
+	private static Set<String> allPairs(List<? extends Set<?>> params) {
+		Set<String> pairs = new HashSet<>();
+		for(int i = 0; i < params.size() - 1; i++)
+			for(int j = i + 1; j < params.size(); j++)
+				for(Object a : params.get(i))
+					for(Object b : params.get(j))
+						pairs.add(i + "=" + a + "," + j + "=" + b);
+		return pairs;
+	}
+
+	private static Set<String> coveredPairs(List<List<Object>> testCases) {
+		Set<String> pairs = new HashSet<>();
+		for(List<Object> tc : testCases)
+			for(int i = 0; i < tc.size() - 1; i++)
+				for(int j = i + 1; j < tc.size(); j++)
+					pairs.add(i + "=" + tc.get(i) + "," + j + "=" + tc.get(j));
+		return pairs;
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testIteratorExhausted() {
+		Iterator<List<Object>> i = new Pairwise<>(Arrays.asList(
+			FuzzyUtil.setOf("A"),
+			FuzzyUtil.setOf("b")
+		)).iterator();
+
+		assertEquals(Arrays.asList("A", "b"), i.next());
+		i.next();
+	}
+
 	@Test
 	public void benchmark() {
 		List<Set> params = Arrays.asList( // 4400 combinations
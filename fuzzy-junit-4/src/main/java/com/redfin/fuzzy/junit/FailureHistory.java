@@ -0,0 +1,134 @@
+package com.redfin.fuzzy.junit;
+
+import com.redfin.fuzzy.IterationSignature;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the signatures of the iterations that failed in each test, one small text file per test, so that later runs
+ * can execute them first. A signature is forgotten once its iteration passes again.
+ */
+/*package*/ final class FailureHistory {
+
+	// Only the most recent failures are worth running first; older ones still run in plan order.
+	private static final int MAX_SIGNATURES = 16;
+
+	private final Path directory;
+
+	/*package*/ FailureHistory(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns the signatures of the iterations of a test that failed in earlier runs, most recent first.
+	 */
+	/*package*/ List<IterationSignature> load(String testName) {
+		Path file = directory.resolve(fileName(testName));
+		if(!Files.isRegularFile(file))
+			return Collections.emptyList();
+
+		List<IterationSignature> signatures = new ArrayList<>();
+		try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while((line = reader.readLine()) != null && signatures.size() < MAX_SIGNATURES) {
+				if(line.trim().isEmpty() || line.startsWith("#"))
+					continue;
+
+				try {
+					signatures.add(IterationSignature.parse(line));
+				}
+				catch(IllegalArgumentException e) {
+					// Skip lines that were edited by hand or written by an incompatible version.
+				}
+			}
+		}
+		catch(IOException e) {
+			// The history is an optimization only; without it, the test simply runs in plan order.
+			return Collections.emptyList();
+		}
+
+		return signatures;
+	}
+
+	/**
+	 * Records the outcome of a run of a test: the iterations that failed are remembered ahead of those that failed
+	 * earlier, and previously failed iterations that passed, or that belong to a plan with different generators than
+	 * {@code current}, are forgotten.
+	 */
+	/*package*/ void update(
+		String testName,
+		List<IterationSignature> previous,
+		IterationSignature current,
+		List<IterationSignature> failed,
+		Collection<IterationSignature> passed
+	) {
+		List<IterationSignature> signatures = new ArrayList<>();
+		for(IterationSignature signature : failed) {
+			if(!signatures.contains(signature))
+				signatures.add(signature);
+		}
+		for(IterationSignature signature : previous) {
+			if(signatures.contains(signature) || passed.contains(signature))
+				continue;
+			if(current != null && !signature.hasSameGeneratorsAs(current))
+				continue;
+
+			signatures.add(signature);
+		}
+		if(signatures.size() > MAX_SIGNATURES)
+			signatures = signatures.subList(0, MAX_SIGNATURES);
+
+		if(signatures.equals(previous))
+			return;
+
+		Path file = directory.resolve(fileName(testName));
+		try {
+			if(signatures.isEmpty()) {
+				Files.deleteIfExists(file);
+				return;
+			}
+
+			Files.createDirectories(directory);
+
+			// Write to a temporary file first, so that concurrent test runs never read a partially written history.
+			Path temporary = Files.createTempFile(directory, "failures", ".tmp");
+			try {
+				try(BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+					writer.write("# " + testName);
+					writer.newLine();
+					for(IterationSignature signature : signatures) {
+						writer.write(signature.toString());
+						writer.newLine();
+					}
+				}
+
+				Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				Files.deleteIfExists(temporary);
+			}
+		}
+		catch(IOException e) {
+			// The history is an optimization only; failing to write it must not fail the test.
+		}
+	}
+
+	private static String fileName(String testName) {
+		String name = testName.replaceAll("[^A-Za-z0-9._-]", "_");
+		if(name.length() > 100)
+			name = name.substring(0, 100);
+
+		// Sanitizing can map different names onto the same string, so the full name's hash keeps the files apart.
+		return name + "-" + Integer.toHexString(testName.hashCode()) + ".failures";
+	}
+
+}
@@ -1,8 +1,37 @@
 package com.redfin.fuzzy.junit;
 
 import com.redfin.fuzzy.CaseCompositionMode;
+import com.redfin.fuzzy.CompositionPlanner;
 import com.redfin.fuzzy.Context;
 import com.redfin.fuzzy.FuzzyPreconditions;
+import com.redfin.fuzzy.IterationCoordinator;
+import com.redfin.fuzzy.IterationNotSelectedException;
+import com.redfin.fuzzy.IterationPlan;
+import com.redfin.fuzzy.IterationSelector;
+import com.redfin.fuzzy.IterationSignature;
+import com.redfin.fuzzy.IterationThreads;
+import com.redfin.fuzzy.RandomSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
@@ -39,12 +68,67 @@ import org.junit.runners.model.Statement;
  * 3-B
  * </pre>
  *
+ * <p>To reproduce a failure without running every iteration of a test, set the {@value #ITERATIONS_PROPERTY} system
+ * property to the index of the failed iteration (or to a comma-separated list of indices and ranges, such as
+ * {@code 3,10-20}), usually while running that single test:
+ * </p>
+ *
+ * <pre>
+ * mvn test -Dtest=MyTestSuite#test -Dfuzzy.iterations=812
+ * </pre>
+ *
+ * <p>Similarly, the {@value #SHARD_INDEX_PROPERTY} and {@value #SHARD_COUNT_PROPERTY} system properties split the
+ * iterations of every test between several processes; see {@link Config#withShard(int, int)}.
+ * </p>
+ *
+ * <p>To hand out the iterations of every test dynamically to several processes instead, for example to the forks of a
+ * test run, set the {@value #COORDINATOR_PORT_PROPERTY} system property to the same free port in each of them; see
+ * {@link Config#withCoordinator(int)}.
+ * </p>
+ *
+ * <p>When the {@value #FAILURE_HISTORY_PROPERTY} system property names a directory, the iterations that fail are
+ * recorded there, and run before all other iterations the next time the test runs; see
+ * {@link Config#withFailureHistory(Path)}.
+ * </p>
+ *
  * @see #DEFAULT
  * @see #EACH_SUBCASE_AT_LEAST_ONCE
  * @see #REPORTING_ALL_FAILURES
  */
 public class FuzzyRule implements TestRule {
 
+	/**
+	 * The system property that selects which iterations of each test are executed, unless the rule was configured
+	 * with {@link Config#withIterationSelector(IterationSelector)}.
+	 *
+	 * @see IterationSelector#parse(String)
+	 */
+	public static final String ITERATIONS_PROPERTY = "fuzzy.iterations";
+
+	/**
+	 * The system property that sets the index of the shard executed by this process, unless the rule was configured
+	 * with {@link Config#withShard(int, int)}. Requires {@value #SHARD_COUNT_PROPERTY}.
+	 */
+	public static final String SHARD_INDEX_PROPERTY = "fuzzy.shard.index";
+
+	/**
+	 * The system property that sets the total number of shards, unless the rule was configured with
+	 * {@link Config#withShard(int, int)}. Requires {@value #SHARD_INDEX_PROPERTY}.
+	 */
+	public static final String SHARD_COUNT_PROPERTY = "fuzzy.shard.count";
+
+	/**
+	 * The system property that sets the loopback port of the coordinator that hands out iterations to the processes
+	 * running them, unless the rule was configured with {@link Config#withCoordinator(int)}.
+	 */
+	public static final String COORDINATOR_PORT_PROPERTY = "fuzzy.coordinator.port";
+
+	/**
+	 * The system property that names the directory in which failed iterations are recorded, unless the rule was
+	 * configured with {@link Config#withFailureHistory(Path)}.
+	 */
+	public static final String FAILURE_HISTORY_PROPERTY = "fuzzy.failureHistoryDirectory";
+
 	/**
 	 * A reusable test rule with the default configuration.
 	 *
@@ -126,14 +210,135 @@ public class FuzzyRule implements TestRule {
 	private final int maxIterations;
 	private final boolean failAfterMaxIterations;
 	private final boolean failImmediately;
-	private final CaseCompositionMode caseCompositionMode;
+	private final CompositionPlanner planner;
+	private final int parallelism;
+	private final IterationSelector iterationSelector;
+	private final IterationSelector shard;
+	private final Duration timeBudget;
+	private final RandomSource.Factory randomSources;
+	private final Path failureHistory;
+	private final int prefetch;
+	private final boolean virtualThreads;
+	private final int coordinatorPort;
+
+	// Every rule of a process shares one connection to each coordinator.
+	private static final Map<Integer, IterationCoordinator> COORDINATORS = new HashMap<>();
 
 	private FuzzyRule(Config config) {
 		testReporter = config.testReporter;
 		maxIterations = config.maxIterations;
 		failAfterMaxIterations = config.failAfterMaxIterations;
 		failImmediately = config.failImmediately;
-		caseCompositionMode = config.caseCompositionMode;
+		CompositionPlanner planner = config.planner;
+		if(config.removeRedundantIterations != null && planner instanceof CaseCompositionMode)
+			planner = ((CaseCompositionMode) planner).removingRedundantIterations(config.removeRedundantIterations);
+
+		// A run that may stop early executes the iterations that cover the most new pairs first.
+		this.planner = config.timeBudget == null ? planner : CompositionPlanner.orderedByCoverage(planner);
+		parallelism = config.parallelism;
+		iterationSelector = config.iterationSelector;
+		shard = config.shard;
+		timeBudget = config.timeBudget;
+		randomSources = config.randomSources;
+		failureHistory = config.failureHistory;
+		prefetch = config.prefetch;
+		virtualThreads = config.virtualThreads;
+		coordinatorPort = config.coordinatorPort;
+	}
+
+	private IterationSelector iterationSelector(Description description) {
+		IterationSelector selector = iterationSelector;
+		if(selector == null) {
+			String iterations = property(ITERATIONS_PROPERTY);
+			selector = iterations == null ? IterationSelector.ALL : parseSelectorProperty(ITERATIONS_PROPERTY, iterations);
+		}
+
+		IterationSelector shard = this.shard;
+		if(shard == null) {
+			String shardIndex = property(SHARD_INDEX_PROPERTY);
+			String shardCount = property(SHARD_COUNT_PROPERTY);
+
+			if(shardIndex != null || shardCount != null) {
+				if(shardIndex == null || shardCount == null)
+					throw new IllegalArgumentException(
+						"System properties " + SHARD_INDEX_PROPERTY + " and " + SHARD_COUNT_PROPERTY +
+						" must be set together."
+					);
+
+				shard = IterationSelector.shard(
+					parseIntProperty(SHARD_INDEX_PROPERTY, shardIndex),
+					parseIntProperty(SHARD_COUNT_PROPERTY, shardCount)
+				);
+			}
+		}
+
+		if(shard != null)
+			selector = selector == IterationSelector.ALL ? shard : selector.and(shard);
+
+		IterationCoordinator coordinator = coordinator();
+		if(coordinator != null) {
+			IterationSelector claimed = coordinator.selector(description.getDisplayName());
+			selector = selector == IterationSelector.ALL ? claimed : selector.and(claimed);
+		}
+
+		return selector;
+	}
+
+	private IterationCoordinator coordinator() {
+		int port = coordinatorPort;
+		if(port == 0) {
+			String property = property(COORDINATOR_PORT_PROPERTY);
+			if(property == null)
+				return null;
+			port = parseIntProperty(COORDINATOR_PORT_PROPERTY, property);
+		}
+
+		synchronized(COORDINATORS) {
+			IterationCoordinator coordinator = COORDINATORS.get(port);
+			if(coordinator == null) {
+				try {
+					coordinator = IterationCoordinator.join(port);
+				}
+				catch(IOException e) {
+					throw new UncheckedIOException("Could not join the iteration coordinator on port " + port + ".", e);
+				}
+				COORDINATORS.put(port, coordinator);
+			}
+			return coordinator;
+		}
+	}
+
+	private FailureHistory failureHistory() {
+		Path directory = failureHistory;
+		if(directory == null) {
+			String property = property(FAILURE_HISTORY_PROPERTY);
+			directory = property == null ? null : Paths.get(property);
+		}
+
+		return directory == null ? null : new FailureHistory(directory);
+	}
+
+	private static String property(String name) {
+		String value = System.getProperty(name);
+		return value == null || value.trim().isEmpty() ? null : value.trim();
+	}
+
+	private static IterationSelector parseSelectorProperty(String name, String value) {
+		try {
+			return IterationSelector.parse(value);
+		}
+		catch(IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid value for system property " + name + ".", e);
+		}
+	}
+
+	private static int parseIntProperty(String name, String value) {
+		try {
+			return Integer.parseInt(value);
+		}
+		catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid value for system property " + name + ".", e);
+		}
 	}
 
 	@Override
@@ -146,6 +351,14 @@ public class FuzzyRule implements TestRule {
 		private final Statement baseStatement;
 		private final Description description;
 
+		private long startTime;
+
+		private FailureHistory failureHistory;
+		private List<IterationSignature> previousFailures = Collections.emptyList();
+		private final List<IterationSignature> failedSignatures = new ArrayList<>();
+		private final Set<IterationSignature> passedSignatures = new HashSet<>();
+		private IterationSignature anySignature;
+
 		public FuzzyStatement(FuzzyRule parent, Statement baseStatement, Description description) {
 			this.parent = parent;
 			this.baseStatement = baseStatement;
@@ -156,9 +369,22 @@ public class FuzzyRule implements TestRule {
 		public void evaluate() throws Throwable {
 			// Base the randomization seed on the test name so that it runs deterministically but with different
 			// values for each test.
-			Context.init(parent.caseCompositionMode, description.getDisplayName().hashCode());
+			Context.init(
+				parent.planner,
+				description.getDisplayName().hashCode(),
+				parent.iterationSelector(description),
+				parent.randomSources
+			);
+			Context.prefetch(parent.prefetch);
+
+			failureHistory = parent.failureHistory();
+			if(failureHistory != null) {
+				previousFailures = failureHistory.load(description.getDisplayName());
+				Context.prioritize(previousFailures);
+			}
 
 			parent.testReporter.preTest(description);
+			startTime = System.nanoTime();
 
 			boolean overallSuccess = false;
 			int iterations = 0;
@@ -168,30 +394,26 @@ public class FuzzyRule implements TestRule {
 
 				do {
 					iterations++;
-					if(iterations > parent.maxIterations) {
+					// Compare the plan index rather than the count, so that selecting only some iterations (for example,
+					// one shard) doesn't hide a plan that is too large.
+					if(currentIndex(iterations) >= parent.maxIterations) {
 						if(parent.failAfterMaxIterations)
-							throw new IllegalStateException(
-								"The test " + description.toString() + " was not able to complete within " +
-								parent.maxIterations + (parent.maxIterations == 1 ? " iteration" : " iterations") +
-								", because the number of subcase permutations is too large. You must take one of " +
-								"the following actions:\n" +
-								"\n" +
-								"* increase the allowed number of iterations;\n" +
-								"* switch to a different case composition mode, such as EACH_SUBCASE_AT_LEAST_ONCE; " +
-								"or\n" +
-								"* reduce the complexity of your subcases, for example by breaking your tests into " +
-								"smaller units."
-							);
+							throw newTooManyIterationsException();
 						else
 							break;
 					}
 
-					parent.testReporter.preIteration(description, iterations - 1);
+					parent.testReporter.preIteration(description, currentIndex(iterations));
 
 					boolean[] success = new boolean[] { true };
 					try {
 						baseStatement.evaluate();
 					}
+					catch(IterationNotSelectedException e) {
+						// The iteration selector excludes every iteration of this test, so there is nothing to run.
+						iterations = 0;
+						break;
+					}
 					catch(AssertionError failure) {
 						handleTestFailure(iterations, lastFailure, success, failure);
 					}
@@ -206,9 +428,28 @@ public class FuzzyRule implements TestRule {
 						handleTestFailure(iterations, lastFailure, success, failure);
 					}
 
-					parent.testReporter.postIteration(description, iterations - 1, success[0]);
+					if(success[0])
+						recordOutcome(true);
+
+					parent.testReporter.postIteration(description, currentIndex(iterations), success[0]);
+
+					// Once the first iteration has computed the plan, the rest of it can be handed to the workers.
+					if(parent.parallelism > 1 && Context.plan() != null) {
+						ParallelIterations parallel = new ParallelIterations(this, Context.plan());
+						try {
+							parallel.run();
+						}
+						finally {
+							iterations += parallel.iterations.get();
+						}
+
+						if(parallel.failure != null)
+							lastFailure[0] = parallel.failure;
+
+						break;
+					}
 				}
-				while(Context.next());
+				while(!isOutOfTime() && Context.next());
 
 				if(lastFailure[0] != null)
 					throw lastFailure[0];
@@ -216,24 +457,247 @@ public class FuzzyRule implements TestRule {
 					overallSuccess = true;
 			}
 			finally {
+				if(failureHistory != null) {
+					synchronized(this) {
+						failureHistory.update(
+							description.getDisplayName(),
+							previousFailures,
+							anySignature,
+							failedSignatures,
+							passedSignatures
+						);
+					}
+				}
+
 				parent.testReporter.postTest(description, iterations, overallSuccess);
 				Context.cleanUp();
 			}
 		}
 
+		// Called on the thread that executed the iteration, before it moves on to the next one.
+		private void recordOutcome(boolean success) {
+			if(failureHistory == null)
+				return;
+
+			IterationSignature signature = Context.signature();
+			if(signature == null)
+				return;
+
+			synchronized(this) {
+				anySignature = signature;
+				if(!success)
+					failedSignatures.add(signature);
+				else if(previousFailures.contains(signature))
+					passedSignatures.add(signature);
+			}
+		}
+
+		private IllegalStateException newTooManyIterationsException() {
+			return new IllegalStateException(
+				"The test " + description.toString() + " was not able to complete within " +
+				parent.maxIterations + (parent.maxIterations == 1 ? " iteration" : " iterations") +
+				", because the number of subcase permutations is too large. You must take one of " +
+				"the following actions:\n" +
+				"\n" +
+				"* increase the allowed number of iterations;\n" +
+				"* switch to a different case composition mode, such as EACH_SUBCASE_AT_LEAST_ONCE; " +
+				"or\n" +
+				"* reduce the complexity of your subcases, for example by breaking your tests into " +
+				"smaller units."
+			);
+		}
+
+		// Only checked between iterations, so the first iteration always runs and a slow iteration is never interrupted.
+		private boolean isOutOfTime() {
+			return parent.timeBudget != null && System.nanoTime() - startTime >= parent.timeBudget.toNanos();
+		}
+
+		// The index of the current iteration within the plan, which differs from the number of iterations executed so far
+		// when an iteration selector skips some of them.
+		private int currentIndex(int iterations) {
+			int index = Context.iterationIndex();
+			return index < 0 ? iterations - 1 : index;
+		}
+
 		private void handleTestFailure(int iterations, Throwable[] lastFailure, boolean[] success, Throwable failure)
 		throws Throwable {
-			failure = parent.testReporter.wrapFailure(description, iterations - 1, failure);
+			int index = currentIndex(iterations);
+			failure = parent.testReporter.wrapFailure(description, index, failure);
 
 			lastFailure[0] = failure;
 			success[0] = false;
+			recordOutcome(false);
 
-			parent.testReporter.failure(description, iterations - 1, failure);
+			parent.testReporter.failure(description, index, failure);
 			if(parent.failImmediately)
 				throw failure;
 		}
 	}
 
+	/**
+	 * Executes the iterations of a test that remain after its first iteration, on a pool of worker threads that each
+	 * claim the next unexecuted iteration of the shared plan. Test reporter callbacks are serialized, and the failure
+	 * reported is the one that sequential execution would have reported: the first by iteration index when failing
+	 * immediately, otherwise the last.
+	 */
+	private static class ParallelIterations {
+		private final FuzzyStatement statement;
+		private final IterationPlan plan;
+
+		private final AtomicBoolean stopped = new AtomicBoolean();
+		private final AtomicInteger iterations = new AtomicInteger();
+		private final Object reporterLock = new Object();
+		private final NavigableMap<Integer, Throwable> failures = new TreeMap<>();
+		private final NavigableMap<Integer, Throwable> fatalErrors = new TreeMap<>();
+
+		private Throwable failure;
+
+		ParallelIterations(FuzzyStatement statement, IterationPlan plan) {
+			this.statement = statement;
+			this.plan = plan;
+		}
+
+		void run() throws Throwable {
+			int workers = statement.parent.parallelism;
+			ExecutorService executor = statement.parent.virtualThreads
+				? IterationThreads.newExecutor("fuzzy-" + WorkerThreadFactory.POOL_NUMBER.incrementAndGet() + "-worker-")
+				: Executors.newFixedThreadPool(workers, new WorkerThreadFactory());
+
+			try {
+				List<Future<?>> futures = new ArrayList<>(workers);
+				for(int i = 0; i < workers; i++) {
+					futures.add(executor.submit(this::work));
+				}
+
+				for(Future<?> future : futures) {
+					try {
+						future.get();
+					}
+					catch(ExecutionException e) {
+						recordFatal(Integer.MAX_VALUE, e.getCause());
+					}
+				}
+			}
+			catch(InterruptedException e) {
+				stopped.set(true);
+				Thread.currentThread().interrupt();
+				throw e;
+			}
+			finally {
+				executor.shutdownNow();
+			}
+
+			synchronized(this) {
+				if(!fatalErrors.isEmpty())
+					throw fatalErrors.firstEntry().getValue();
+
+				if(!failures.isEmpty()) {
+					failure = statement.parent.failImmediately
+						? failures.firstEntry().getValue()
+						: failures.lastEntry().getValue();
+				}
+			}
+		}
+
+		private void work() {
+			Context.init(plan);
+			try {
+				Context.prefetch(statement.parent.prefetch);
+
+				while(!stopped.get() && !statement.isOutOfTime() && Context.next()) {
+					int index = Context.iterationIndex();
+					if(index >= statement.parent.maxIterations) {
+						if(statement.parent.failAfterMaxIterations)
+							recordFatal(index, statement.newTooManyIterationsException());
+
+						stopped.set(true);
+						break;
+					}
+
+					iterations.incrementAndGet();
+					runIteration(index);
+				}
+			}
+			finally {
+				Context.cleanUp();
+			}
+		}
+
+		private void runIteration(int index) {
+			TestReporter reporter = statement.parent.testReporter;
+			Description description = statement.description;
+
+			synchronized(reporterLock) {
+				reporter.preIteration(description, index);
+			}
+
+			boolean success = true;
+			try {
+				statement.baseStatement.evaluate();
+			}
+			catch(InterruptedException e) {
+				recordFatal(index, e);
+				return;
+			}
+			catch(AssertionError failure) {
+				success = false;
+				recordFailure(index, failure);
+			}
+			catch(Error e) {
+				recordFatal(index, e);
+				return;
+			}
+			catch(Throwable failure) {
+				success = false;
+				recordFailure(index, failure);
+			}
+
+			statement.recordOutcome(success);
+
+			synchronized(reporterLock) {
+				reporter.postIteration(description, index, success);
+			}
+		}
+
+		private void recordFailure(int index, Throwable failure) {
+			TestReporter reporter = statement.parent.testReporter;
+			Description description = statement.description;
+
+			synchronized(reporterLock) {
+				failure = reporter.wrapFailure(description, index, failure);
+				reporter.failure(description, index, failure);
+			}
+
+			synchronized(this) {
+				failures.put(index, failure);
+			}
+
+			if(statement.parent.failImmediately)
+				stopped.set(true);
+		}
+
+		private void recordFatal(int index, Throwable error) {
+			synchronized(this) {
+				fatalErrors.putIfAbsent(index, error);
+			}
+			stopped.set(true);
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+		private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+		private final int poolNumber = POOL_NUMBER.incrementAndGet();
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "fuzzy-" + poolNumber + "-worker-" + threadNumber.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
 	/**
 	 * A builder for configuring unit case {@linkplain FuzzyRule test rules}. You may obtain a new builder instance via
 	 * the {@link FuzzyRule#custom()} method.
@@ -243,12 +707,31 @@ public class FuzzyRule implements TestRule {
 	public static class Config {
 		private TestReporter testReporter = TestReporter.DEFAULT;
 
-		private CaseCompositionMode caseCompositionMode = CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES;
+		private CompositionPlanner planner = CaseCompositionMode.PAIRWISE_PERMUTATIONS_OF_SUBCASES;
 		private int maxIterations = 1000;
 		private boolean failAfterMaxIterations = true;
 
 		private boolean failImmediately = true;
 
+		private int parallelism = 1;
+
+		private IterationSelector iterationSelector;
+		private IterationSelector shard;
+
+		private Duration timeBudget;
+
+		private Boolean removeRedundantIterations;
+
+		private RandomSource.Factory randomSources = RandomSource.Factory.SPLITTABLE_RANDOM;
+
+		private Path failureHistory;
+
+		private int prefetch;
+
+		private boolean virtualThreads;
+
+		private int coordinatorPort;
+
 		/**
 		 * Sets the test reporter responsible for communicating unit test progress and status. By default, this is
 		 * set to {@link TestReporter#DEFAULT}.
@@ -275,7 +758,40 @@ public class FuzzyRule implements TestRule {
 		 * @see #withMaxIterations(int)
 		 */
 		public Config withCaseCompositionMode(CaseCompositionMode caseCompositionMode) {
-			this.caseCompositionMode = FuzzyPreconditions.checkNotNull(caseCompositionMode);
+			return this.withPlanner(caseCompositionMode);
+		}
+
+		/**
+		 * Sets the planner that decides which combinations of subcases the unit tests executed by this rule run, for
+		 * algorithms other than the built-in {@linkplain #withCaseCompositionMode(CaseCompositionMode) case composition
+		 * modes}.
+		 *
+		 * @param planner the planner for the tests. Cannot be {@code null}.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 *
+		 * @see CompositionPlanner
+		 */
+		public Config withPlanner(CompositionPlanner planner) {
+			this.planner = FuzzyPreconditions.checkNotNull(planner);
+			return this;
+		}
+
+		/**
+		 * Removes the iterations of pairwise plans that would not cover any pair of subcases not already covered by
+		 * earlier iterations, so that every iteration adds coverage. Iterations that exactly duplicate an earlier one
+		 * are always removed. This applies to the {@linkplain #withCaseCompositionMode(CaseCompositionMode) case
+		 * composition modes}; custom {@linkplain #withPlanner(CompositionPlanner) planners} are used as they are.
+		 *
+		 * <p>By default, redundant iterations are only removed when the {@code fuzzy.removeRedundantIterations}
+		 * system property is set to {@code true}.</p>
+		 *
+		 * @param removeRedundantIterations whether to remove redundant iterations.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withRemoveRedundantIterations(boolean removeRedundantIterations) {
+			this.removeRedundantIterations = removeRedundantIterations;
 			return this;
 		}
 
@@ -343,6 +859,201 @@ public class FuzzyRule implements TestRule {
 			return this;
 		}
 
+		/**
+		 * Sets the number of threads used to execute the iterations of each test. By default, this is {@code 1}, and
+		 * every iteration runs on the thread executing the test.
+		 *
+		 * <p>When {@code parallelism} is greater than one, the first iteration of each test still runs on the test's
+		 * thread, so that fuzzy can discover the test's generators and plan its iterations. The remaining iterations
+		 * are then divided among a pool of {@code parallelism} worker threads, each of which runs the whole test
+		 * statement (including any {@code @Before} and {@code @After} methods) against a single iteration at a time.
+		 * The test and its fixtures must therefore be safe to execute concurrently. Each iteration generates the same
+		 * values regardless of which thread executes it.
+		 * </p>
+		 * <p>Test reporter callbacks are never invoked concurrently. When {@link #withFailImmediately(boolean)
+		 * failImmediately} is set, the failure reported is the one with the lowest iteration index, exactly as it
+		 * would be if the iterations had run sequentially.
+		 * </p>
+		 *
+		 * @param parallelism the number of worker threads. Cannot be less than or equal to zero.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withParallelism(int parallelism) {
+			if(parallelism <= 0)
+				throw new IllegalArgumentException("Fuzzy config requires a parallelism of at least one.");
+
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Limits the time spent executing the iterations of each test. Once the budget is used up, the rule stops
+		 * starting new iterations; the iteration in progress is allowed to complete, and the first iteration of each
+		 * test always runs. Stopping early is not a failure.
+		 *
+		 * <p>With a budget, the plan is {@linkplain CompositionPlanner#orderedByCoverage(CompositionPlanner) reordered}
+		 * so that each iteration covers as many pairs of subcases not covered by earlier iterations as possible; the
+		 * iterations that run within the budget are therefore the most valuable ones. The
+		 * {@link TestReporter#SUMMARIZING summarizing} and {@link TestReporter#VERBOSE verbose} test reporters print
+		 * the coverage reached, which is also available to custom reporters through
+		 * {@link Context#coverage()}.</p>
+		 *
+		 * <p>The budget is independent of {@link #withMaxIterations(int) maxIterations}, which still applies.</p>
+		 *
+		 * @param timeBudget the maximum time to spend starting iterations of each test. Cannot be null or negative.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withTimeBudget(Duration timeBudget) {
+			FuzzyPreconditions.checkNotNull(timeBudget);
+			if(timeBudget.isNegative())
+				throw new IllegalArgumentException("Fuzzy config requires a time budget that is not negative.");
+
+			this.timeBudget = timeBudget;
+			return this;
+		}
+
+		/**
+		 * Restricts the iterations of each test that are executed. Selected iterations generate exactly the same values
+		 * as they do when every iteration is executed, which makes it possible to reproduce a single failed iteration
+		 * quickly. Tests for which no iteration is selected are reported as having run zero iterations.
+		 *
+		 * <p>By default, the selection is read from the {@value FuzzyRule#ITERATIONS_PROPERTY} system property, and
+		 * every iteration is executed when that property is not set.</p>
+		 *
+		 * @param iterationSelector the iterations to execute. Cannot be null.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withIterationSelector(IterationSelector iterationSelector) {
+			this.iterationSelector = FuzzyPreconditions.checkNotNull(iterationSelector);
+			return this;
+		}
+
+		/**
+		 * Executes only one shard of the iterations of each test, so that a test with a large plan can be split between
+		 * several processes. Shard {@code i} executes the iterations whose index modulo {@code shardCount} is
+		 * {@code i}; together, shards {@code 0} to {@code shardCount - 1} execute every iteration exactly once, and
+		 * each iteration generates the same values regardless of the shard that executes it. A test with fewer
+		 * iterations than shards is reported as having run zero iterations in the surplus shards.
+		 *
+		 * <p>By default, the shard is read from the {@value FuzzyRule#SHARD_INDEX_PROPERTY} and
+		 * {@value FuzzyRule#SHARD_COUNT_PROPERTY} system properties, and every iteration is executed when they are not
+		 * set. Sharding can be combined with an {@linkplain #withIterationSelector(IterationSelector) iteration
+		 * selector}, in which case only iterations selected by both are executed.</p>
+		 *
+		 * @param shardIndex the shard executed by this rule, from {@code 0} to {@code shardCount - 1}.
+		 * @param shardCount the total number of shards. Cannot be less than or equal to zero.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withShard(int shardIndex, int shardCount) {
+			this.shard = IterationSelector.shard(shardIndex, shardCount);
+			return this;
+		}
+
+		/**
+		 * Hands out the iterations of each test dynamically to the processes running it, such as the forks of a
+		 * test run: instead of executing a fixed {@linkplain #withShard(int, int) shard}, each process asks a
+		 * coordinator for the next iteration whenever it is ready for one, so that processes that draw cheap
+		 * iterations do not sit idle while another works through expensive ones. Together, the processes execute
+		 * every iteration exactly once.
+		 *
+		 * <p>The first process to run a test starts the coordinator on the given loopback port, and must keep running
+		 * until the others are done. Each process only reports the failures of the iterations it executed, so a test
+		 * fails in whichever process ran its failing iteration, and passes in the others. By default, the port is read
+		 * from the {@value FuzzyRule#COORDINATOR_PORT_PROPERTY} system property, and no coordinator is used when it is
+		 * not set.</p>
+		 *
+		 * @param port the loopback port shared by every process running the tests.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 *
+		 * @see IterationCoordinator
+		 */
+		public Config withCoordinator(int port) {
+			if(port <= 0 || port > 0xFFFF)
+				throw new IllegalArgumentException("Invalid coordinator port " + port + ".");
+
+			this.coordinatorPort = port;
+			return this;
+		}
+
+		/**
+		 * Sets the random sources from which generators draw their values. By default, this is
+		 * {@link RandomSource.Factory#SPLITTABLE_RANDOM}; {@link RandomSource.Factory#JAVA_UTIL_RANDOM} generates values
+		 * from {@code java.util.Random} instead, as earlier versions of fuzzy did. Changing the random sources changes
+		 * the values that each iteration generates.
+		 *
+		 * @param randomSources the factory of random sources to use. Cannot be {@code null}.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withRandomSource(RandomSource.Factory randomSources) {
+			this.randomSources = FuzzyPreconditions.checkNotNull(randomSources);
+			return this;
+		}
+
+		/**
+		 * Records the iterations of each test that fail in the given directory, and runs them before all other
+		 * iterations the next time the test runs. Combined with {@linkplain #withFailImmediately(boolean) failing
+		 * immediately}, a regression that is still present then fails the test in its first iteration. Recorded
+		 * iterations are forgotten once they pass, and whenever the test's generators change.
+		 *
+		 * <p>By default, the directory is read from the {@value FuzzyRule#FAILURE_HISTORY_PROPERTY} system property, and
+		 * failures are not recorded when that property is not set. A build-specific directory, such as
+		 * {@code target/fuzzy-failures}, is usually appropriate.</p>
+		 *
+		 * @param directory the directory in which to record failures. Cannot be {@code null}.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 */
+		public Config withFailureHistory(Path directory) {
+			this.failureHistory = FuzzyPreconditions.checkNotNull(directory);
+			return this;
+		}
+
+		/**
+		 * Generates the values of the next {@code iterations} iterations of each test on a helper thread while the
+		 * current iteration executes, which overlaps the construction of expensive values with the execution of tests
+		 * that wait on I/O. Prefetched values are identical to the values generated without prefetching. Subcases must
+		 * be safe to execute on another thread. By default, {@code prefetch} is {@code 0}, and values are only generated
+		 * when a test reads them.
+		 *
+		 * @param iterations the number of iterations to prefetch. Cannot be negative.
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 *
+		 * @see Context#prefetch(int)
+		 */
+		public Config withPrefetch(int iterations) {
+			if(iterations < 0)
+				throw new IllegalArgumentException("The number of iterations to prefetch cannot be negative.");
+
+			this.prefetch = iterations;
+			return this;
+		}
+
+		/**
+		 * Runs the worker threads used for {@linkplain #withParallelism(int) parallel} iterations on virtual threads,
+		 * when the JVM supports them (Java 21 and later). A virtual thread that waits on I/O does not hold on to an
+		 * operating system thread, so tests that spend most of their time waiting, for example on local stand-in
+		 * services, can use a parallelism in the thousands. On earlier versions of Java, the workers are platform
+		 * threads as usual. By default, {@code virtualThreads} is {@code false}.
+		 *
+		 * <p>Each worker keeps its own fuzzy context in a thread local, which virtual threads support; tests should
+		 * nevertheless avoid caching large objects in thread locals of their own when running on virtual threads.</p>
+		 *
+		 * @return this {@code Config} instance, to aid in method chaining.
+		 *
+		 * @see IterationThreads
+		 */
+		public Config withVirtualThreads(boolean virtualThreads) {
+			this.virtualThreads = virtualThreads;
+			return this;
+		}
+
 		/**
 		 * Sets the {@linkplain #withCaseCompositionMode(CaseCompositionMode) case composition mode} to
 		 * {@link CaseCompositionMode#EACH_SUBCASE_AT_LEAST_ONCE}. This mode provides less comprehensive coverage than
@@ -421,7 +1132,19 @@ public class FuzzyRule implements TestRule {
 		/** @see #withCaseCompositionMode(CaseCompositionMode)
 		 */
 		public void setCaseCompositionMode(CaseCompositionMode caseCompositionMode) {
-			this.caseCompositionMode = caseCompositionMode;
+			this.planner = caseCompositionMode;
+		}
+
+		/** @see #withPlanner(CompositionPlanner)
+		 */
+		public void setPlanner(CompositionPlanner planner) {
+			this.planner = planner;
+		}
+
+		/** @see #withRemoveRedundantIterations(boolean)
+		 */
+		public void setRemoveRedundantIterations(boolean removeRedundantIterations) {
+			withRemoveRedundantIterations(removeRedundantIterations);
 		}
 
 		/** @see #withFailImmediately(boolean)
@@ -430,6 +1153,40 @@ public class FuzzyRule implements TestRule {
 			this.failImmediately = failImmediately;
 		}
 
+		/** @see #withParallelism(int)
+		 */
+		public void setParallelism(int parallelism) { withParallelism(parallelism); }
+
+		/** @see #withTimeBudget(Duration)
+		 */
+		public void setTimeBudget(Duration timeBudget) { withTimeBudget(timeBudget); }
+
+		/** @see #withIterationSelector(IterationSelector)
+		 */
+		public void setIterationSelector(IterationSelector iterationSelector) {
+			withIterationSelector(iterationSelector);
+		}
+
+		/** @see #withRandomSource(RandomSource.Factory)
+		 */
+		public void setRandomSource(RandomSource.Factory randomSources) { withRandomSource(randomSources); }
+
+		/** @see #withFailureHistory(Path)
+		 */
+		public void setFailureHistory(Path directory) { withFailureHistory(directory); }
+
+		/** @see #withPrefetch(int)
+		 */
+		public void setPrefetch(int iterations) { withPrefetch(iterations); }
+
+		/** @see #withVirtualThreads(boolean)
+		 */
+		public void setVirtualThreads(boolean virtualThreads) { withVirtualThreads(virtualThreads); }
+
+		/** @see #withCoordinator(int)
+		 */
+		public void setCoordinator(int port) { withCoordinator(port); }
+
 		/**
 		 * Returns a new {@code FuzzyRule} instance with the configuration currently described by this builder.
 		 */
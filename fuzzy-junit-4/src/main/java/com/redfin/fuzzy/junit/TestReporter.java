@@ -1,6 +1,7 @@
 package com.redfin.fuzzy.junit;
 
 import com.redfin.fuzzy.Context;
+import com.redfin.fuzzy.Coverage;
 import org.junit.runner.Description;
 
 public interface TestReporter {
@@ -56,10 +57,16 @@ public interface TestReporter {
 	TestReporter SUMMARIZING = new BaseTestReporter() {
 		@Override
 		public void postTest(Description description, int iterations, boolean success) {
+			Coverage coverage = Context.coverage();
 			System.out.println(
 				"Test " + description.toString() +
 				" ran with " + iterations +
-				" iteration" + (iterations == 1 ? "" : "s") + "."
+				" iteration" + (iterations == 1 ? "" : "s") +
+				(coverage == null ? "" : ", covering " + coverage) +
+				(coverage == null || coverage.getRemovedIterations() == 0
+					? ""
+					: "; " + coverage.getRemovedIterations() + " redundant iteration(s) were removed from its plan") +
+				"."
 			);
 		}
 	};
@@ -87,6 +94,16 @@ public interface TestReporter {
 		@Override
 		public void postTest(Description description, int iterations, boolean success) {
 			System.out.println("Test " + description.toString() + " completed after " + iterations + " iteration(s).");
+
+			Coverage coverage = Context.coverage();
+			if(coverage != null) {
+				System.out.println("  Covered " + coverage + ".");
+				if(coverage.getRemovedIterations() > 0) {
+					System.out.println(
+						"  Removed " + coverage.getRemovedIterations() + " redundant iteration(s) from the plan."
+					);
+				}
+			}
 		}
 	};
 
@@ -2,16 +2,42 @@ package com.redfin.fuzzy.junit;
 
 import static org.junit.Assert.*;
 
+import com.redfin.fuzzy.Any;
+import com.redfin.fuzzy.CaseCompositionMode;
 import com.redfin.fuzzy.Generator;
+import com.redfin.fuzzy.Context;
+import com.redfin.fuzzy.Coverage;
 import com.redfin.fuzzy.FuzzyUtil;
+import com.redfin.fuzzy.IterationSelector;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
 
 public class FuzzyRuleTest {
 
+	@After
+	public void clearInterrupt() {
+		// Some tests expect the rule to restore the interrupt flag, which would disturb later tests.
+		Thread.interrupted();
+	}
+
 	@Test
 	public void testBasicIntegration() throws Throwable {
 		FuzzyRule subject = FuzzyRule.DEFAULT;
@@ -238,4 +264,513 @@ public class FuzzyRuleTest {
 		assertEquals(4, count[0]);
 	}
 
+	@Test
+	public void testParallelIntegration() throws Throwable {
+		FuzzyRule subject = FuzzyRule.custom().withParallelism(4).build();
+		Set<String> actuals = Collections.synchronizedSet(new HashSet<>());
+		Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+
+		subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<String> myString = Generator.of("A", "B", "C");
+					Generator<Integer> myInt = Generator.of(1, 2, 3);
+
+					actuals.add(myString.get() + myInt.get());
+					threads.add(Thread.currentThread().getName());
+				}
+			},
+			Description.EMPTY
+		).evaluate();
+
+		assertEquals(
+			FuzzyUtil.setOf("A1", "A2", "A3", "B1", "B2", "B3", "C1", "C2", "C3"),
+			actuals
+		);
+		assertTrue(threads.contains(Thread.currentThread().getName()));
+	}
+
+	@Test
+	public void testParallelGeneratorsReadOtherGeneratorsOfTheSameIteration() throws Throwable {
+		FuzzyRule subject = FuzzyRule.custom().withParallelism(4).build();
+		AtomicInteger iterations = new AtomicInteger();
+		List<String> mismatches = Collections.synchronizedList(new ArrayList<>());
+
+		subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<Integer> base = Generator.of(Any.integer().inRange(-1000, 1000), Any.of(7, 8, 9));
+					Generator<Integer> near = Generator.of(Any.integer().within(5).of(base));
+					Generator<Integer> other = Generator.of(Any.integer().within(5).butExcludingValueOf(base));
+
+					iterations.incrementAndGet();
+					int b = base.get();
+					if(Math.abs(near.get() - b) > 5 || Math.abs(other.get() - b) > 5 || other.get() == b)
+						mismatches.add(b + " " + near.get() + " " + other.get());
+				}
+			},
+			Description.EMPTY
+		).evaluate();
+
+		assertTrue(iterations.get() > 4);
+		assertEquals(Collections.emptyList(), mismatches);
+	}
+
+	@Test
+	public void testParallelFailingIntegration() throws Throwable {
+		FuzzyRule subject = FuzzyRule.custom().withParallelism(3).build();
+
+		Statement s = subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<Integer> myInt = Generator.named("myInt").of(1, 2, 3, 4);
+					Generator<String> myString = Generator.named("myString").of("A", "B", "C", "D");
+
+					assertFalse(myInt.get() == 3 && "C".equals(myString.get()));
+				}
+			},
+			Description.EMPTY
+		);
+
+		try {
+			s.evaluate();
+			fail();
+		}
+		catch(Exception e) {
+			// expected
+			assertTrue(e.getMessage().contains("AssertionError"));
+			assertTrue(e.getMessage().contains("myInt"));
+			assertTrue(e.getMessage().contains("3"));
+			assertTrue(e.getMessage().contains("\"C\""));
+		}
+	}
+
+	@Test
+	public void testParallelTooManyIterations() throws Throwable {
+		FuzzyRule subject = FuzzyRule.custom()
+			.withMaxIterations(2)
+			.withParallelism(2)
+			.build();
+
+		AtomicInteger i = new AtomicInteger();
+
+		Statement s = subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<Integer> myInt = Generator.of(1, 2, 3, 4);
+
+					myInt.get();
+					i.incrementAndGet();
+				}
+			},
+			Description.EMPTY
+		);
+
+		try {
+			s.evaluate();
+			fail();
+		}
+		catch(IllegalStateException e) {
+			// expected
+			assertEquals(2, i.get());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParallelismMustBePositive() {
+		FuzzyRule.custom().withParallelism(0);
+	}
+
+	@Test
+	public void testIterationSelector() throws Throwable {
+		List<String> allValues = new ArrayList<>();
+		FuzzyRule.DEFAULT.apply(valueRecordingStatement(allValues), Description.EMPTY).evaluate();
+
+		List<String> selectedValues = new ArrayList<>();
+		FuzzyRule.custom()
+			.withIterationSelector(IterationSelector.of(1, 5))
+			.build()
+			.apply(valueRecordingStatement(selectedValues), Description.EMPTY)
+			.evaluate();
+
+		assertEquals(Arrays.asList(allValues.get(1), allValues.get(5)), selectedValues);
+	}
+
+	@Test
+	public void testIterationsSystemProperty() throws Throwable {
+		List<String> values = new ArrayList<>();
+
+		System.setProperty(FuzzyRule.ITERATIONS_PROPERTY, "3");
+		try {
+			FuzzyRule.DEFAULT.apply(valueRecordingStatement(values), Description.EMPTY).evaluate();
+		}
+		finally {
+			System.clearProperty(FuzzyRule.ITERATIONS_PROPERTY);
+		}
+
+		assertEquals(1, values.size());
+	}
+
+	@Test
+	public void testIterationSelectorSelectingNothing() throws Throwable {
+		int[] reportedIterations = new int[] { -1 };
+		FuzzyRule subject = FuzzyRule.custom()
+			.withIterationSelector(IterationSelector.of(1000))
+			.withTestReporter(new TestReporter.BaseTestReporter() {
+				@Override
+				public void postTest(Description description, int iterations, boolean success) {
+					reportedIterations[0] = iterations;
+					assertTrue(success);
+				}
+			})
+			.build();
+
+		List<String> values = new ArrayList<>();
+		subject.apply(valueRecordingStatement(values), Description.EMPTY).evaluate();
+
+		assertTrue(values.isEmpty());
+		assertEquals(0, reportedIterations[0]);
+	}
+
+	@Test
+	public void testFailureReportsSelectedIndex() throws Throwable {
+		int[] failedIndex = new int[] { -1 };
+		FuzzyRule subject = FuzzyRule.custom()
+			.withIterationSelector(IterationSelector.of(4))
+			.withTestReporter(new TestReporter.BaseTestReporter() {
+				@Override
+				public void failure(Description description, int index, Throwable failure) {
+					failedIndex[0] = index;
+				}
+			})
+			.build();
+
+		Statement s = subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator.of(1, 2, 3, 4, 5, 6).get();
+					fail();
+				}
+			},
+			Description.EMPTY
+		);
+
+		try {
+			s.evaluate();
+			fail();
+		}
+		catch(Exception e) {
+			// expected
+		}
+
+		assertEquals(4, failedIndex[0]);
+	}
+
+	@Test
+	public void testShardsCoverEveryIterationOnce() throws Throwable {
+		List<String> allValues = new ArrayList<>();
+		FuzzyRule.DEFAULT.apply(valueRecordingStatement(allValues), Description.EMPTY).evaluate();
+
+		List<String> shardedValues = new ArrayList<>();
+		for(int shard = 0; shard < 4; shard++) {
+			FuzzyRule.custom()
+				.withShard(shard, 4)
+				.build()
+				.apply(valueRecordingStatement(shardedValues), Description.EMPTY)
+				.evaluate();
+		}
+
+		assertEquals(allValues.size(), shardedValues.size());
+		assertEquals(new HashSet<>(allValues), new HashSet<>(shardedValues));
+	}
+
+	@Test
+	public void testShardSystemProperties() throws Throwable {
+		List<String> allValues = new ArrayList<>();
+		FuzzyRule.DEFAULT.apply(valueRecordingStatement(allValues), Description.EMPTY).evaluate();
+
+		List<String> values = new ArrayList<>();
+		System.setProperty(FuzzyRule.SHARD_INDEX_PROPERTY, "1");
+		System.setProperty(FuzzyRule.SHARD_COUNT_PROPERTY, "2");
+		try {
+			FuzzyRule.DEFAULT.apply(valueRecordingStatement(values), Description.EMPTY).evaluate();
+		}
+		finally {
+			System.clearProperty(FuzzyRule.SHARD_INDEX_PROPERTY);
+			System.clearProperty(FuzzyRule.SHARD_COUNT_PROPERTY);
+		}
+
+		assertEquals(Arrays.asList(allValues.get(1), allValues.get(3), allValues.get(5), allValues.get(7)), values);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testShardSystemPropertiesRequiredTogether() throws Throwable {
+		System.setProperty(FuzzyRule.SHARD_INDEX_PROPERTY, "1");
+		try {
+			FuzzyRule.DEFAULT.apply(valueRecordingStatement(new ArrayList<>()), Description.EMPTY).evaluate();
+		}
+		finally {
+			System.clearProperty(FuzzyRule.SHARD_INDEX_PROPERTY);
+		}
+	}
+
+	@Test
+	public void testTimeBudget() throws Throwable {
+		Coverage[] coverage = new Coverage[1];
+		FuzzyRule subject = FuzzyRule.custom()
+			.withTimeBudget(Duration.ofMillis(50))
+			.withTestReporter(new TestReporter.BaseTestReporter() {
+				@Override
+				public void postTest(Description description, int iterations, boolean success) {
+					coverage[0] = Context.coverage();
+					assertTrue(success);
+				}
+			})
+			.build();
+
+		List<String> values = new ArrayList<>();
+		subject.apply(
+			new Statement() {
+				@Override
+				public void evaluate() throws Throwable {
+					Generator<String> myString = Generator.of("A", "B", "C");
+					Generator<Integer> myInt = Generator.of(1, 2, 3);
+
+					values.add(myString.get() + myInt.get());
+					Thread.sleep(20);
+				}
+			},
+			Description.EMPTY
+		).evaluate();
+
+		// The plan has 9 iterations, but the budget only leaves time for a few of them.
+		assertTrue(values.size() >= 1 && values.size() < 9);
+		assertEquals(values.size(), coverage[0].getIterations());
+		assertEquals(values.size(), coverage[0].getCovered());
+		assertEquals(9, coverage[0].getTotal());
+	}
+
+	@Test
+	public void testRemoveRedundantIterations() throws Throwable {
+		int all = iterationsOf(FuzzyRule.custom().withRemoveRedundantIterations(false).build());
+		int nonRedundant = iterationsOf(FuzzyRule.custom().withRemoveRedundantIterations(true).build());
+
+		assertTrue(nonRedundant < all);
+	}
+
+	private static int iterationsOf(FuzzyRule rule) throws Throwable {
+		int[] iterations = new int[1];
+		rule.apply(
+			new Statement() {
+				@Override
+				public void evaluate() {
+					List<Generator<Integer>> generators = new ArrayList<>();
+					for(int i = 0; i < 5; i++)
+						generators.add(Generator.named("g" + i).of(1, 2, 3, 4));
+					for(Generator<Integer> generator : generators)
+						generator.get();
+					iterations[0]++;
+				}
+			},
+			Description.EMPTY
+		).evaluate();
+		return iterations[0];
+	}
+
+	@Test
+	public void testZeroTimeBudgetRunsFirstIteration() throws Throwable {
+		List<String> values = new ArrayList<>();
+		FuzzyRule.custom()
+			.withTimeBudget(Duration.ZERO)
+			.withParallelism(2)
+			.build()
+			.apply(valueRecordingStatement(values), Description.EMPTY)
+			.evaluate();
+
+		assertEquals(1, values.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeTimeBudget() {
+		FuzzyRule.custom().withTimeBudget(Duration.ofSeconds(-1));
+	}
+
+	@Test
+	public void testPrefetchGeneratesSameValues() throws Throwable {
+		List<String> expected = new ArrayList<>();
+		FuzzyRule.DEFAULT.apply(valueRecordingStatement(expected), Description.EMPTY).evaluate();
+
+		List<String> values = new ArrayList<>();
+		FuzzyRule.custom()
+			.withPrefetch(2)
+			.build()
+			.apply(valueRecordingStatement(values), Description.EMPTY)
+			.evaluate();
+
+		assertEquals(expected, values);
+	}
+
+	@Test
+	public void testVirtualThreadsGenerateSameValues() throws Throwable {
+		List<String> expected = new ArrayList<>();
+		FuzzyRule.DEFAULT.apply(valueRecordingStatement(expected), Description.EMPTY).evaluate();
+
+		List<String> values = Collections.synchronizedList(new ArrayList<>());
+		FuzzyRule.custom()
+			.withParallelism(100)
+			.withVirtualThreads(true)
+			.build()
+			.apply(valueRecordingStatement(values), Description.EMPTY)
+			.evaluate();
+
+		assertEquals(new HashSet<>(expected), new HashSet<>(values));
+		assertEquals(expected.size(), values.size());
+	}
+
+	@Test
+	public void testCustomPlanner() throws Throwable {
+		List<String> expected = new ArrayList<>();
+		FuzzyRule.custom()
+			.withEachSubcaseAtLeastOnce()
+			.build()
+			.apply(valueRecordingStatement(expected), Description.EMPTY)
+			.evaluate();
+
+		List<String> values = new ArrayList<>();
+		FuzzyRule.custom()
+			.withPlanner(CaseCompositionMode.EACH_SUBCASE_AT_LEAST_ONCE::plan)
+			.build()
+			.apply(valueRecordingStatement(values), Description.EMPTY)
+			.evaluate();
+
+		assertEquals(expected, values);
+	}
+
+	@Test
+	public void testCoordinatedRulesShareIterations() throws Throwable {
+		List<String> expected = new ArrayList<>();
+		FuzzyRule.DEFAULT.apply(valueRecordingStatement(expected), Description.EMPTY).evaluate();
+
+		int port;
+		try(ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+
+		List<String> values = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<?>> forks = new ArrayList<>();
+			for(int i = 0; i < 2; i++) {
+				FuzzyRule rule = FuzzyRule.custom().withCoordinator(port).build();
+				forks.add(pool.submit(() -> {
+					try {
+						rule.apply(valueRecordingStatement(values), Description.EMPTY).evaluate();
+					}
+					catch(Throwable t) {
+						throw new AssertionError(t);
+					}
+				}));
+			}
+			for(Future<?> fork : forks)
+				fork.get();
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		assertEquals(new HashSet<>(expected), new HashSet<>(values));
+		assertEquals(expected.size(), values.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCoordinatorPort() {
+		FuzzyRule.custom().withCoordinator(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativePrefetch() {
+		FuzzyRule.custom().withPrefetch(-1);
+	}
+
+	@Test
+	public void testFailureHistoryRunsFailedIterationFirst() throws Throwable {
+		Description description = Description.createTestDescription(FuzzyRuleTest.class, "history");
+		List<String> allValues = new ArrayList<>();
+		FuzzyRule.DEFAULT.apply(valueRecordingStatement(allValues), description).evaluate();
+		String failingValue = allValues.get(6);
+
+		Path directory = Files.createTempDirectory("fuzzy-failures");
+		try {
+			FuzzyRule subject = FuzzyRule.custom().withFailureHistory(directory).build();
+
+			List<String> firstRun = new ArrayList<>();
+			try {
+				subject.apply(failingStatement(firstRun, failingValue), description).evaluate();
+				fail();
+			}
+			catch(Exception e) {
+				assertEquals(7, firstRun.size());
+			}
+
+			List<String> secondRun = new ArrayList<>();
+			try {
+				subject.apply(failingStatement(secondRun, failingValue), description).evaluate();
+				fail();
+			}
+			catch(Exception e) {
+				assertEquals(Collections.singletonList(failingValue), secondRun);
+			}
+
+			// Once the iteration passes again, it runs first one last time and is then forgotten.
+			List<String> fixedRun = new ArrayList<>();
+			subject.apply(valueRecordingStatement(fixedRun), description).evaluate();
+			assertEquals(failingValue, fixedRun.get(0));
+			assertEquals(new HashSet<>(allValues), new HashSet<>(fixedRun));
+			assertEquals(allValues.size(), fixedRun.size());
+
+			try(Stream<Path> files = Files.list(directory)) {
+				assertEquals(0, files.count());
+			}
+		}
+		finally {
+			deleteRecursively(directory);
+		}
+	}
+
+	private static Statement failingStatement(List<String> values, String failingValue) {
+		Statement recording = valueRecordingStatement(values);
+		return new Statement() {
+			@Override
+			public void evaluate() throws Throwable {
+				recording.evaluate();
+				assertNotEquals(failingValue, values.get(values.size() - 1));
+			}
+		};
+	}
+
+	private static void deleteRecursively(Path directory) throws IOException {
+		try(Stream<Path> files = Files.list(directory)) {
+			for(Path file : (Iterable<Path>) files::iterator)
+				Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+
+	private static Statement valueRecordingStatement(List<String> values) {
+		return new Statement() {
+			@Override
+			public void evaluate() throws Throwable {
+				Generator<String> myString = Generator.of("A", "B", "C");
+				Generator<Integer> myInt = Generator.of(r -> r.nextInt(), r -> r.nextInt(), r -> r.nextInt());
+
+				values.add(myString.get() + myInt.get());
+			}
+		};
+	}
+
 }